@@ -0,0 +1,143 @@
+package com.ll.rsv.domain.base.genFile.service.GenFileService;
+
+import com.ll.rsv.global.app.AppConfig;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 업로드 1건을 genFile 에 저장하는 처리량(uploadedBytes/s = MB/s)과, 그 동안 디스크에 쓴 바이트 수(diskBytesWritten/s)
+// 업로드 1건당 디스크에 쓴 바이트 = diskBytesWritten / uploadedBytes * 파일 크기
+// oldMultipart : 톰캣이 디스크에 써둔 파트를 임시폴더로 복사하고, 최종 위치로 옮긴다(GenFileWriter 도입 전).
+// newMultipart : 같은 파트를 GenFileWriter 로 읽으면서 해시를 구해 blob 으로 쓴다.
+// newStream : 파트 없이 요청 본문(PUT .../stream)을 GenFileWriter 로 바로 쓴다.
+// 임시폴더와 genFile 폴더는 같은 파일시스템에 두므로 옮기기는 이름 바꾸기로 끝난다, 다른 파일시스템이면 oldMultipart 는 한번 더 쓴다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GenFileWriterBenchmark {
+    @Param({"1", "64"})
+    private int fileSizeMb;
+
+    private Path rootDirPath;
+    private Path partPath;
+    private byte[] body;
+    private GenFileWriter genFileWriter;
+    private String oldGenFileDirPath;
+    private String oldTempDirPath;
+
+    private Path writtenPath;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long uploadedBytes;
+        public long diskBytesWritten;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            uploadedBytes = 0;
+            diskBytesWritten = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        rootDirPath = Files.createTempDirectory("genFileWriterBenchmark");
+
+        oldGenFileDirPath = AppConfig.genFileDirPath;
+        oldTempDirPath = AppConfig.tempDirPath;
+        AppConfig.genFileDirPath = rootDirPath.resolve("genFile").toString();
+        AppConfig.tempDirPath = rootDirPath.resolve("temp").toString();
+        Files.createDirectories(Path.of(AppConfig.tempDirPath));
+
+        genFileWriter = new GenFileWriter();
+        new DirectFieldAccessor(genFileWriter).setPropertyValue("maxFileSize", DataSize.ofGigabytes(1));
+
+        body = new byte[fileSizeMb * 1024 * 1024];
+        ThreadLocalRandom.current().nextBytes(body);
+
+        partPath = rootDirPath.resolve("part");
+        Files.write(partPath, body);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(rootDirPath);
+
+        AppConfig.genFileDirPath = oldGenFileDirPath;
+        AppConfig.tempDirPath = oldTempDirPath;
+    }
+
+    // 매번 내용을 조금 바꿔서, 같은 내용의 blob 이 이미 있어서 쓰지 않고 끝나는 일이 없게 한다.
+    @Setup(Level.Invocation)
+    public void changeContent() throws IOException {
+        long salt = System.nanoTime();
+
+        ByteBuffer.wrap(body).putLong(0, salt);
+
+        try (RandomAccessFile file = new RandomAccessFile(partPath.toFile(), "rw")) {
+            file.writeLong(salt);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void removeWrittenFile() throws IOException {
+        if (writtenPath != null) Files.deleteIfExists(writtenPath);
+        writtenPath = null;
+    }
+
+    @Benchmark
+    public void oldMultipart(Counters counters) throws IOException {
+        String fileName = UUID.randomUUID() + ".mp4";
+
+        // 톰캣이 파트를 디스크에 쓴 것
+        counters.diskBytesWritten += body.length;
+
+        Path tempPath = Path.of(AppConfig.getTempDirPath(), fileName);
+        Files.copy(partPath, tempPath, StandardCopyOption.REPLACE_EXISTING);
+        counters.diskBytesWritten += body.length;
+
+        Path genFilePath = Path.of(AppConfig.getGenFileDirPath(), "post", "2024_01_01", fileName);
+        Files.createDirectories(genFilePath.getParent());
+        Files.move(tempPath, genFilePath, StandardCopyOption.REPLACE_EXISTING);
+
+        counters.uploadedBytes += body.length;
+        writtenPath = genFilePath;
+    }
+
+    @Benchmark
+    public void newMultipart(Counters counters) throws IOException {
+        // 톰캣이 파트를 디스크에 쓴 것
+        counters.diskBytesWritten += body.length;
+
+        try (InputStream inputStream = Files.newInputStream(partPath)) {
+            write(inputStream, counters);
+        }
+    }
+
+    @Benchmark
+    public void newStream(Counters counters) {
+        write(new ByteArrayInputStream(body), counters);
+    }
+
+    private void write(InputStream inputStream, Counters counters) {
+        GenFileWriter.WrittenFile writtenFile = genFileWriter.write("video.mp4", inputStream);
+
+        counters.diskBytesWritten += writtenFile.fileSize();
+        counters.uploadedBytes += writtenFile.fileSize();
+        writtenPath = Path.of(writtenFile.getFilePath());
+    }
+}
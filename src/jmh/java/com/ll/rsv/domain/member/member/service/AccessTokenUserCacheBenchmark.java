@@ -0,0 +1,104 @@
+package com.ll.rsv.domain.member.member.service;
+
+import com.ll.rsv.global.security.SecurityUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 엑세스 토큰으로 SecurityUser 를 얻는 요청 1회 비용
+// doubleParse : validateToken 으로 검증하고 getDataFrom 으로 다시 파싱한다(AccessTokenUserCache 도입 전).
+// singlePass : findDataFrom 으로 검증과 파싱을 한번에 한다.
+// cached : AccessTokenUserCache 를 거친다, 같은 토큰이 tokensCount 개 중에서 돌아가며 들어온다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AccessTokenUserCacheBenchmark {
+    private static final String SECRET_KEY = Base64.getEncoder().encodeToString("abcdefghijklmnopqrstuvwxyz123456".repeat(2).getBytes());
+
+    @Param({"1", "1000"})
+    private int tokensCount;
+
+    private AuthTokenService authTokenService;
+    private AccessTokenUserCache accessTokenUserCache;
+    private String[] tokens;
+    private int tokenIndex;
+
+    @Setup
+    public void setUp() {
+        AuthTokenCodec codec = new AuthTokenCodec();
+
+        DirectFieldAccessor codecAccessor = new DirectFieldAccessor(codec);
+        codecAccessor.setPropertyValue("secretKey", SECRET_KEY);
+        codecAccessor.setPropertyValue("keyId", "1");
+        codecAccessor.setPropertyValue("oldSecretKeys", "");
+        codec.init();
+
+        authTokenService = new AuthTokenService(codec);
+
+        accessTokenUserCache = new AccessTokenUserCache(new SimpleMeterRegistry());
+        new DirectFieldAccessor(accessTokenUserCache).setPropertyValue("maxSize", 100_000L);
+        accessTokenUserCache.init();
+
+        tokens = new String[tokensCount];
+
+        for (int i = 0; i < tokensCount; i++) {
+            tokens[i] = authTokenService.genToken(i + 1, "user" + (i + 1), List.of("ROLE_MEMBER"), 60 * 60);
+        }
+    }
+
+    private String nextToken() {
+        String token = tokens[tokenIndex];
+        tokenIndex = (tokenIndex + 1) % tokens.length;
+
+        return token;
+    }
+
+    // MemberService.toSecurityUser 와 같다.
+    private static SecurityUser toSecurityUser(Map<String, Object> payloadBody) {
+        long id = (int) payloadBody.get("id");
+        String username = (String) payloadBody.get("username");
+        List<String> authorities = (List<String>) payloadBody.get("authorities");
+
+        return new SecurityUser(
+                id,
+                username,
+                "",
+                authorities.stream().map(SimpleGrantedAuthority::new).toList()
+        );
+    }
+
+    @Benchmark
+    public SecurityUser doubleParse() {
+        String token = nextToken();
+
+        if (!authTokenService.validateToken(token)) return null;
+
+        return toSecurityUser(authTokenService.getDataFrom(token));
+    }
+
+    @Benchmark
+    public SecurityUser singlePass() {
+        return authTokenService.findDataFrom(nextToken())
+                .map(AccessTokenUserCacheBenchmark::toSecurityUser)
+                .orElse(null);
+    }
+
+    @Benchmark
+    public SecurityUser cached() {
+        return accessTokenUserCache.get(
+                nextToken(),
+                token -> authTokenService.findDataFrom(token)
+                        .map(payloadBody -> new AccessTokenUserCache.Entry(
+                                toSecurityUser(payloadBody),
+                                (long) payloadBody.get("exp")
+                        ))
+                        .orElse(null)
+        );
+    }
+}
@@ -0,0 +1,80 @@
+package com.ll.rsv.domain.member.member.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.DirectFieldAccessor;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 토큰 발급/검증 1회 비용
+// perCall* : 이전 AuthTokenService 처럼 호출할 때마다 키를 BASE64 디코딩하고 파서를 새로 만든다.
+// codec* : AuthTokenCodec 처럼 시작할 때 만든 키와 파서를 재사용한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AuthTokenCodecBenchmark {
+    private static final String SECRET_KEY = Base64.getEncoder().encodeToString("abcdefghijklmnopqrstuvwxyz123456".repeat(2).getBytes());
+    private static final long EXPIRE_SECONDS = 60 * 60;
+
+    private final Map<String, Object> claims = Map.of(
+            "id", 1,
+            "username", "user1",
+            "authorities", List.of("ROLE_MEMBER")
+    );
+
+    private AuthTokenCodec codec;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        codec = new AuthTokenCodec();
+
+        DirectFieldAccessor accessor = new DirectFieldAccessor(codec);
+        accessor.setPropertyValue("secretKey", SECRET_KEY);
+        accessor.setPropertyValue("keyId", "1");
+        accessor.setPropertyValue("oldSecretKeys", "");
+
+        codec.init();
+
+        token = codec.encode(claims, EXPIRE_SECONDS);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public String perCallEncode() {
+        Date issuedAt = new Date();
+
+        return Jwts.builder()
+                .claims(claims)
+                .issuedAt(issuedAt)
+                .expiration(new Date(issuedAt.getTime() + 1000 * EXPIRE_SECONDS))
+                .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
+                .compact();
+    }
+
+    @Benchmark
+    public String codecEncode() {
+        return codec.encode(claims, EXPIRE_SECONDS);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public Claims perCallDecode() {
+        return Jwts.parser()
+                .setSigningKey(SECRET_KEY)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Claims codecDecode() {
+        return codec.decode(token);
+    }
+}
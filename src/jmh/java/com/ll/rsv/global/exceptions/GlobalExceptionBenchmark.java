@@ -0,0 +1,82 @@
+package com.ll.rsv.global.exceptions;
+
+import com.ll.rsv.global.rsData.RsData;
+import com.ll.rsv.standard.base.Empty;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// 404/403 응답을 위해 예외를 던지고 잡는 1회 비용
+// stackFilled* : 스택트레이스를 채우고 응답을 매번 만드는, 이전 GlobalException 과 같은 예외
+// e404, e403 : 스택트레이스 없이 미리 만든 응답을 쓰는 지금의 GlobalException.E404, E403
+// stackDepth 는 예외가 던져지는 곳까지 쌓인 호출 깊이, 실제 요청은 필터와 프록시를 거치면서 100 프레임이 넘는다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GlobalExceptionBenchmark {
+    @Param({"10", "150"})
+    private int stackDepth;
+
+    public static class StackFilledException extends RuntimeException {
+        private final RsData<Empty> rsData;
+
+        public StackFilledException(String resultCode, String msg) {
+            super("resultCode=" + resultCode + ",msg=" + msg);
+            this.rsData = RsData.of(resultCode, msg);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Thrower {
+        void run();
+    }
+
+    private RsData<Empty> throwAndCatch(Thrower thrower) {
+        try {
+            call(stackDepth, thrower);
+        } catch (GlobalException e) {
+            return e.getRsData();
+        } catch (StackFilledException e) {
+            return e.rsData;
+        }
+
+        return null;
+    }
+
+    private void call(int depth, Thrower thrower) {
+        if (depth <= 0) {
+            thrower.run();
+            return;
+        }
+
+        call(depth - 1, thrower);
+    }
+
+    @Benchmark
+    public RsData<Empty> stackFilled404() {
+        return throwAndCatch(() -> {
+            throw new StackFilledException("404-0", "데이터를 찾을 수 없습니다.");
+        });
+    }
+
+    @Benchmark
+    public RsData<Empty> e404() {
+        return throwAndCatch(() -> {
+            throw new GlobalException.E404();
+        });
+    }
+
+    @Benchmark
+    public RsData<Empty> stackFilled403() {
+        return throwAndCatch(() -> {
+            throw new StackFilledException("403-1", "권한이 없습니다.");
+        });
+    }
+
+    @Benchmark
+    public RsData<Empty> e403() {
+        return throwAndCatch(() -> {
+            throw new GlobalException.E403();
+        });
+    }
+}
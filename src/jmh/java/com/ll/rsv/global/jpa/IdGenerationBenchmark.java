@@ -0,0 +1,120 @@
+package com.ll.rsv.global.jpa;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// 댓글 100000개를 넣는 속도(insert/s), Hibernate 가 보내는 JDBC 호출을 그대로 흉내낸다.
+// identity : IDENTITY 일 때처럼 한 행씩 insert 하고 생성된 id 를 받아온다.
+// pooledLo : 지금처럼 시퀀스에서 50개 단위로 id 를 받아두고, 50개씩 배치로 insert 한다(hibernate.jdbc.batch_size).
+// H2(PostgreSQL 모드) 메모리 DB 라 네트워크 왕복 비용은 빠져 있다, 실제 PostgreSQL 에서는 차이가 더 벌어진다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(IdGenerationBenchmark.COMMENTS_COUNT)
+public class IdGenerationBenchmark {
+    static final int COMMENTS_COUNT = 100_000;
+    // BaseEntity 의 시퀀스 할당 단위, hibernate.jdbc.batch_size
+    private static final int ALLOCATION_SIZE = 50;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:id_generation_benchmark;MODE=PostgreSQL");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table post_comment_identity (id bigint generated by default as identity primary key, create_date timestamp, modify_date timestamp, post_id bigint, author_id bigint, body varchar(255), published boolean)");
+            statement.execute("create table post_comment_pooled (id bigint primary key, create_date timestamp, modify_date timestamp, post_id bigint, author_id bigint, body varchar(255), published boolean)");
+        }
+
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTables() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("truncate table post_comment_identity restart identity");
+            statement.execute("truncate table post_comment_pooled");
+            statement.execute("drop sequence if exists post_comment_seq");
+            statement.execute("create sequence post_comment_seq start with 1 increment by " + ALLOCATION_SIZE);
+        }
+
+        connection.commit();
+    }
+
+    private void bind(PreparedStatement statement, int offset, Timestamp now, int i) throws SQLException {
+        statement.setTimestamp(offset + 1, now);
+        statement.setTimestamp(offset + 2, now);
+        statement.setLong(offset + 3, 1);
+        statement.setLong(offset + 4, 1);
+        statement.setString(offset + 5, "댓글 " + i);
+        statement.setBoolean(offset + 6, true);
+    }
+
+    @Benchmark
+    public long identity() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long lastId = 0;
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "insert into post_comment_identity (create_date, modify_date, post_id, author_id, body, published) values (?, ?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS
+        )) {
+            for (int i = 0; i < COMMENTS_COUNT; i++) {
+                bind(statement, 0, now, i);
+                statement.executeUpdate();
+
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    generatedKeys.next();
+                    lastId = generatedKeys.getLong(1);
+                }
+            }
+        }
+
+        connection.commit();
+
+        return lastId;
+    }
+
+    @Benchmark
+    public long pooledLo() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long hi = 0;
+
+        try (
+                PreparedStatement nextValStatement = connection.prepareStatement("select next value for post_comment_seq");
+                PreparedStatement statement = connection.prepareStatement(
+                        "insert into post_comment_pooled (id, create_date, modify_date, post_id, author_id, body, published) values (?, ?, ?, ?, ?, ?, ?)"
+                )
+        ) {
+            for (int i = 0; i < COMMENTS_COUNT; i++) {
+                if (i % ALLOCATION_SIZE == 0) {
+                    try (ResultSet resultSet = nextValStatement.executeQuery()) {
+                        resultSet.next();
+                        hi = resultSet.getLong(1);
+                    }
+                }
+
+                statement.setLong(1, hi + i % ALLOCATION_SIZE);
+                bind(statement, 1, now, i);
+                statement.addBatch();
+
+                if ((i + 1) % ALLOCATION_SIZE == 0) statement.executeBatch();
+            }
+
+            statement.executeBatch();
+        }
+
+        connection.commit();
+
+        return hi;
+    }
+}
@@ -1,27 +1,24 @@
 package com.ll.rsv.domain.base.genFile.controller;
 
-import com.ll.rsv.domain.base.genFile.entity.GenFile.GenFile;
+import com.ll.rsv.domain.base.genFile.dto.GenFileSnapshot;
+import com.ll.rsv.domain.base.genFile.service.GenFileService.GenFileSender;
 import com.ll.rsv.domain.base.genFile.service.GenFileService.GenFileService;
+import com.ll.rsv.domain.base.genFile.service.GenFileService.GenFileVariantService;
 import com.ll.rsv.global.exceptions.GlobalException;
-import com.ll.rsv.standard.util.Ut;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 
 @Controller
 @RequestMapping("/genFile")
@@ -30,27 +27,38 @@ import java.io.FileNotFoundException;
 @Tag(name = "GenFileController", description = "파일 다운로드 등 다양한 기능 제공")
 public class GenFileController {
     private final GenFileService genFileService;
+    private final GenFileSender genFileSender;
+    private final GenFileVariantService genFileVariantService;
 
     @GetMapping("/download/{fileName}")
     @Operation(summary = "파일 다운로드")
-    public ResponseEntity<Resource> download(
-            @PathVariable String fileName, HttpServletRequest request
-    ) throws FileNotFoundException {
-        GenFile genFile = genFileService.findByFileName(fileName).orElseThrow(
+    // 큰 파일을 보내는 동안 DB 커넥션을 붙잡고 있지 않도록
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void download(
+            @PathVariable String fileName,
+            @RequestParam(required = false) Integer w,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        GenFileSnapshot genFile = genFileService.findSnapshotByFileName(fileName).orElseThrow(
                 GlobalException.E404::new
         );
-        String filePath = genFile.getFilePath();
 
-        Resource resource = new InputStreamResource(new FileInputStream(filePath));
+        // 이미지는 ?w=640 처럼 요청하면 축소본을 보낸다.
+        if (w != null && genFileVariantService.supports(genFile)) {
+            int width = genFileVariantService.getVariantWidth(w);
 
-        String contentType = request.getServletContext().getMimeType(new File(filePath).getAbsolutePath());
+            genFileSender.send(
+                    genFile,
+                    "w" + width,
+                    () -> genFileVariantService.getVariantFile(genFile, width),
+                    request,
+                    response
+            );
 
-        if (contentType == null) contentType = "application/octet-stream";
+            return;
+        }
 
-        String downloadFileName = Ut.url.encode(genFile.getOriginFileName()).replace("%20", " ");
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + downloadFileName + "\"")
-                .contentType(MediaType.parseMediaType(contentType)).body(resource);
+        genFileSender.send(genFile, request, response);
     }
 }
@@ -38,6 +38,10 @@ public class GenFileDto {
     private String fileDir;
     @NonNull
     private String originFileName;
+    private Long durationMs;
+    private Integer width;
+    private Integer height;
+    private String codec;
     @NonNull
     private String url;
     @NonNull
@@ -59,6 +63,10 @@ public class GenFileDto {
         this.fileExt = genFile.getFileExt();
         this.fileDir = genFile.getFileDir();
         this.originFileName = genFile.getOriginFileName();
+        this.durationMs = genFile.getDurationMs();
+        this.width = genFile.getWidth();
+        this.height = genFile.getHeight();
+        this.codec = genFile.getCodec();
         this.url = genFile.getUrl();
         this.downloadUrl = genFile.getDownloadUrl();
     }
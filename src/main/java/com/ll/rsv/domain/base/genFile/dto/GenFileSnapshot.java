@@ -0,0 +1,33 @@
+package com.ll.rsv.domain.base.genFile.dto;
+
+import com.ll.rsv.domain.base.genFile.entity.GenFile.GenFile;
+
+import java.time.LocalDateTime;
+
+// 다운로드에 필요한 GenFile 의 값들
+// 캐시되어 여러 요청이 동시에 사용하므로, 영속성 컨텍스트와 무관한 불변 객체로 만든다.
+public record GenFileSnapshot(
+        long id,
+        String fileName,
+        String originFileName,
+        String fileExtTypeCode,
+        String fileExt,
+        long fileSize,
+        String storedFileName,
+        String filePath,
+        LocalDateTime modifyDate
+) {
+    public GenFileSnapshot(GenFile genFile) {
+        this(
+                genFile.getId(),
+                genFile.getFileName(),
+                genFile.getOriginFileName(),
+                genFile.getFileExtTypeCode(),
+                genFile.getFileExt(),
+                genFile.getFileSize(),
+                genFile.getStoredFileName(),
+                genFile.getFilePath(),
+                genFile.getModifyDate()
+        );
+    }
+}
@@ -5,12 +5,11 @@ import com.ll.rsv.global.jpa.entity.BaseTime;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.io.File;
-
 import static lombok.AccessLevel.PROTECTED;
 
 @Entity
 @Table(
+        // relId, relTypeCode 로 시작하므로 특정 데이터(들)의 파일들을 불러올 때도 사용된다.
         uniqueConstraints = @UniqueConstraint(
                 columnNames = {
                         "relId", "relTypeCode", "typeCode", "type2Code", "fileNo"
@@ -18,7 +17,9 @@ import static lombok.AccessLevel.PROTECTED;
         ),
         indexes = {
                 // 특정 그룹의 데이터들을 불러올 때
-                @Index(name = "GenFile__idx2", columnList = "relTypeCode, typeCode, type2Code")
+                @Index(name = "GenFile__idx2", columnList = "relTypeCode, typeCode, type2Code"),
+                // 같은 내용의 파일(blob)을 참조하는 데이터들을 셀 때
+                @Index(name = "GenFile__idx3", columnList = "fileHash, fileDir")
         }
 )
 @Builder
@@ -36,13 +37,42 @@ public class GenFile extends BaseTime {
     private String fileExtTypeCode;
     private String fileExtType2Code;
     private long fileSize;
+    // SHA-256
+    @Column(length = 64)
+    private String fileHash;
     private long fileNo;
     private String fileExt;
     private String fileDir;
     private String originFileName;
+    // 동영상 정보
+    private Long durationMs;
+    private Integer width;
+    private Integer height;
+    private String codec;
+
+    public static final String BLOB_DIR = "blob";
+
+    // 내용의 해시로 저장 위치를 정한다, 한 폴더에 파일이 너무 많아지지 않도록 해시 앞 4글자로 2단계 폴더를 나눈다.
+    public static String getBlobFileDir(String fileHash) {
+        return BLOB_DIR + "/" + fileHash.substring(0, 2) + "/" + fileHash.substring(2, 4);
+    }
+
+    public static String getBlobFileName(String fileHash, String fileExt) {
+        return fileExt.isEmpty() ? fileHash : fileHash + "." + fileExt;
+    }
+
+    // 여러 GenFile 이 같은 blob 을 공유할 수 있다, 이전에 저장된 파일들은 fileDir/fileName 에 따로 저장되어 있다.
+    public boolean isBlob() {
+        return fileHash != null && getFileDir().equals(getBlobFileDir(fileHash));
+    }
+
+    // 디스크에 저장된 파일의 이름
+    public String getStoredFileName() {
+        return isBlob() ? getBlobFileName(fileHash, fileExt) : getFileName();
+    }
 
     public String getUrl() {
-        return "/gen/" + getFileDir() + "/" + getFileName();
+        return "/gen/" + getFileDir() + "/" + getStoredFileName();
     }
 
     public String getDownloadUrl() {
@@ -50,11 +80,6 @@ public class GenFile extends BaseTime {
     }
 
     public String getFilePath() {
-        return AppConfig.getGenFileDirPath() + "/" + getFileDir() + "/" + getFileName();
-    }
-
-    public void deleteOnDisk() {
-        String filePath = getFilePath();
-        new File(filePath).delete();
+        return AppConfig.getGenFileDirPath() + "/" + getFileDir() + "/" + getStoredFileName();
     }
 }
@@ -0,0 +1,43 @@
+package com.ll.rsv.domain.base.genFile.entity.GenFile;
+
+import com.ll.rsv.global.app.AppConfig;
+import com.ll.rsv.global.jpa.entity.BaseTime;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+import static lombok.AccessLevel.PROTECTED;
+
+// 디스크에서 지워야 할 파일, GenFile 을 삭제하는 트랜잭션 안에서 기록되므로 롤백되면 같이 사라진다.
+@Entity
+@Table(
+        indexes = {
+                // 처리할 차례가 된 것들을 불러올 때
+                @Index(name = "GenFileDeleteTask__idx1", columnList = "nextTryDate")
+        }
+)
+@Builder
+@NoArgsConstructor(access = PROTECTED)
+@AllArgsConstructor(access = PROTECTED)
+@Getter
+@Setter
+public class GenFileDeleteTask extends BaseTime {
+    private String fileDir;
+    private String storedFileName;
+    // blob 이면 참조하는 GenFile 이 없을 때만 지운다.
+    private String fileHash;
+    private String fileExt;
+    private int tryCount;
+    private LocalDateTime nextTryDate;
+
+    public boolean isBlob() {
+        return fileHash != null;
+    }
+
+    public String getFilePath() {
+        return AppConfig.getGenFileDirPath() + "/" + getFileDir() + "/" + getStoredFileName();
+    }
+}
@@ -0,0 +1,11 @@
+package com.ll.rsv.domain.base.genFile.repository;
+
+import com.ll.rsv.domain.base.genFile.entity.GenFile.GenFileDeleteTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface GenFileDeleteTaskRepository extends JpaRepository<GenFileDeleteTask, Long> {
+    List<GenFileDeleteTask> findTop100ByNextTryDateLessThanEqualOrderByIdAsc(LocalDateTime nextTryDate);
+}
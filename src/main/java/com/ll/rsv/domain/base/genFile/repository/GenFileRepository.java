@@ -1,15 +1,38 @@
 package com.ll.rsv.domain.base.genFile.repository;
 
 import com.ll.rsv.domain.base.genFile.entity.GenFile.GenFile;
+import com.ll.rsv.domain.base.genFile.service.GenFileService.GenFileWriter;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public interface GenFileRepository extends JpaRepository<GenFile, Long> {
     List<GenFile> findByRelTypeCodeAndRelId(String relTypeCode, long relId);
 
+    List<GenFile> findByRelTypeCodeAndRelIdIn(String relTypeCode, List<Long> relIds);
+
     Optional<GenFile> findByFileName(String fileName);
 
+    @Query("select distinct g.fileHash, g.fileDir, g.fileExt from GenFile g where g.fileHash in :fileHashes")
+    List<Object[]> findBlobRefsByFileHashIn(Collection<String> fileHashes);
+
+    // fileHashes 의 blob 들 중 GenFile 이 참조하고 있는 것들의 GenFileWriter.getBlobKey
+    default Set<String> findReferencedBlobKeys(Collection<String> fileHashes) {
+        if (fileHashes.isEmpty()) return Set.of();
+
+        return findBlobRefsByFileHashIn(fileHashes)
+                .stream()
+                .map(row -> GenFileWriter.getBlobKey((String) row[0], (String) row[1], (String) row[2]))
+                .collect(Collectors.toSet());
+    }
+
+    @Query("select g.fileName from GenFile g where g.fileName in :fileNames")
+    List<String> findFileNamesByFileNameIn(List<String> fileNames);
+
     Optional<GenFile> findByRelTypeCodeAndRelIdAndTypeCodeAndType2CodeAndFileNo(String relTypeCode, long relId, String typeCode, String type2Code, int fileNo);
 }
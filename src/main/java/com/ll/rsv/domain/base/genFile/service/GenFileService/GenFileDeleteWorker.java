@@ -0,0 +1,127 @@
+package com.ll.rsv.domain.base.genFile.service.GenFileService;
+
+import com.ll.rsv.domain.base.genFile.entity.GenFile.GenFileDeleteTask;
+import com.ll.rsv.domain.base.genFile.repository.GenFileDeleteTaskRepository;
+import com.ll.rsv.domain.base.genFile.repository.GenFileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// GenFileDeleteTask 를 모아서 디스크에서 지운다, 실패하면 간격을 늘려가며 다시 시도한다.
+// 트랜잭션 밖에서 실행되므로 파일을 지우는 동안 DB 커넥션을 잡고 있지 않는다.
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class GenFileDeleteWorker {
+    private static final int BATCH_SIZE = 100;
+    // 이만큼 실패하면 포기한다, 남은 파일은 GenFileOrphanSweeper 가 정리한다.
+    private static final int MAX_TRY_COUNT = 10;
+    // 같은 내용의 파일을 올리면 기존 blob 을 재사용하면서 수정시각을 갱신한다.
+    // 그 GenFile 이 아직 커밋되지 않았을 수 있으므로 최근에 재사용된 blob 은 나중에 다시 확인한다.
+    private static final Duration BLOB_REUSE_GRACE = Duration.ofMinutes(10);
+
+    private final GenFileDeleteTaskRepository genFileDeleteTaskRepository;
+    private final GenFileRepository genFileRepository;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean requested;
+
+    // 커밋된 후에 호출된다, 요청한 스레드를 막지 않도록 가상 스레드에서 처리한다.
+    public void wakeUp() {
+        Thread.ofVirtual().name("genFileDeleteWorker").start(this::run);
+    }
+
+    // 재시도할 것들과 wakeUp 이 유실된 것들(서버 재시작 등)을 처리한다.
+    @Scheduled(fixedDelay = 60 * 1000)
+    public void run() {
+        requested = true;
+
+        // 처리하는 도중에 요청이 들어오면 이어서 한번 더 처리한다.
+        while (requested && running.compareAndSet(false, true)) {
+            try {
+                requested = false;
+
+                while (processBatch() == BATCH_SIZE) ;
+            } catch (Exception e) {
+                log.error("Failed to process genFile delete tasks", e);
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+
+    // 처리한 개수
+    private int processBatch() {
+        List<GenFileDeleteTask> tasks = genFileDeleteTaskRepository.findTop100ByNextTryDateLessThanEqualOrderByIdAsc(LocalDateTime.now());
+
+        if (tasks.isEmpty()) return 0;
+
+        List<String> fileHashes = tasks.stream()
+                .filter(GenFileDeleteTask::isBlob)
+                .map(GenFileDeleteTask::getFileHash)
+                .distinct()
+                .toList();
+
+        Set<String> referencedBlobKeys = genFileRepository.findReferencedBlobKeys(fileHashes);
+
+        List<Long> doneIds = new ArrayList<>();
+        List<GenFileDeleteTask> retryTasks = new ArrayList<>();
+
+        for (GenFileDeleteTask task : tasks) {
+            if (task.isBlob() && referencedBlobKeys.contains(GenFileWriter.getBlobKey(task.getFileHash(), task.getFileDir(), task.getFileExt()))) {
+                doneIds.add(task.getId());
+                continue;
+            }
+
+            try {
+                Path path = Path.of(task.getFilePath());
+
+                if (task.isBlob() && isRecentlyModified(path)) {
+                    task.setNextTryDate(LocalDateTime.now().plus(BLOB_REUSE_GRACE));
+                    retryTasks.add(task);
+                    continue;
+                }
+
+                Files.deleteIfExists(path);
+                doneIds.add(task.getId());
+            } catch (IOException e) {
+                task.setTryCount(task.getTryCount() + 1);
+
+                if (task.getTryCount() >= MAX_TRY_COUNT) {
+                    log.error("Gave up deleting %s".formatted(task.getFilePath()), e);
+                    doneIds.add(task.getId());
+                    continue;
+                }
+
+                log.warn("Failed to delete %s, try count : %d".formatted(task.getFilePath(), task.getTryCount()), e);
+
+                // 1분, 2분, 4분, ... 최대 1시간
+                long delayMinutes = Math.min(1L << (task.getTryCount() - 1), 60);
+                task.setNextTryDate(LocalDateTime.now().plusMinutes(delayMinutes));
+                retryTasks.add(task);
+            }
+        }
+
+        if (!doneIds.isEmpty()) genFileDeleteTaskRepository.deleteAllByIdInBatch(doneIds);
+        if (!retryTasks.isEmpty()) genFileDeleteTaskRepository.saveAll(retryTasks);
+
+        return tasks.size();
+    }
+
+    private boolean isRecentlyModified(Path path) throws IOException {
+        if (!Files.exists(path)) return false;
+
+        return Files.getLastModifiedTime(path).toMillis() > System.currentTimeMillis() - BLOB_REUSE_GRACE.toMillis();
+    }
+}
@@ -0,0 +1,125 @@
+package com.ll.rsv.domain.base.genFile.service.GenFileService;
+
+import com.ll.rsv.domain.base.genFile.entity.GenFile.GenFile;
+import com.ll.rsv.domain.base.genFile.repository.GenFileRepository;
+import com.ll.rsv.global.app.AppConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// genFile.dirPath 아래의 파일들 중 어떤 GenFile 도 가리키지 않는 것들을 지운다.
+// GenFileDeleteWorker 가 포기했거나, 파일은 썼지만 GenFile 이 저장되기 전에 서버가 종료된 경우 등
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class GenFileOrphanSweeper {
+    private static final int CHUNK_SIZE = 500;
+    // 아직 커밋되지 않은 GenFile 의 파일을 지우지 않도록, 충분히 오래된 파일만 지운다.
+    private static final Duration MIN_AGE = Duration.ofDays(1);
+    // blob/ab/cd/<SHA-256>.<확장자>
+    private static final Pattern BLOB_FILE_NAME = Pattern.compile("[0-9a-f]{64}(\\..+)?");
+    // <relTypeCode>/yyyy_MM_dd/<fileName>, blob 이전에 저장된 파일들
+    private static final Pattern LEGACY_DIR_NAME = Pattern.compile("\\d{4}_\\d{2}_\\d{2}");
+
+    private final GenFileRepository genFileRepository;
+
+    // blob 이면 fileHash 와 GenFileWriter.getBlobKey, 아니면 fileName 이 key
+    private record Candidate(Path path, boolean blob, String fileHash, String key) {
+    }
+
+    @Scheduled(cron = "${custom.genFile.orphanSweep.cron}")
+    public void sweep() {
+        Path genFileDirPath = Path.of(AppConfig.getGenFileDirPath());
+
+        if (!Files.isDirectory(genFileDirPath)) return;
+
+        long modifiedBefore = System.currentTimeMillis() - MIN_AGE.toMillis();
+        int deletedCount = 0;
+
+        // 전체 목록을 메모리에 올리지 않고 CHUNK_SIZE 개씩 DB 와 대조한다.
+        try (Stream<Path> paths = Files.walk(genFileDirPath)) {
+            Iterator<Candidate> candidates = paths
+                    .filter(Files::isRegularFile)
+                    .map(path -> toCandidate(genFileDirPath, path))
+                    .filter(Objects::nonNull)
+                    .iterator();
+
+            List<Candidate> chunk = new ArrayList<>(CHUNK_SIZE);
+
+            while (candidates.hasNext()) {
+                chunk.add(candidates.next());
+
+                if (chunk.size() == CHUNK_SIZE || !candidates.hasNext()) {
+                    deletedCount += sweepChunk(chunk, modifiedBefore);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Failed to sweep genFile dir", e);
+        }
+
+        if (deletedCount > 0) log.info("Deleted %d orphan genFiles".formatted(deletedCount));
+    }
+
+    // 지운 개수
+    private int sweepChunk(List<Candidate> chunk, long modifiedBefore) {
+        List<String> fileHashes = chunk.stream().filter(Candidate::blob).map(Candidate::fileHash).distinct().toList();
+        List<String> fileNames = chunk.stream().filter(candidate -> !candidate.blob()).map(Candidate::key).toList();
+
+        Set<String> referencedBlobKeys = genFileRepository.findReferencedBlobKeys(fileHashes);
+        Set<String> referencedFileNames = fileNames.isEmpty() ? Set.of() : new HashSet<>(genFileRepository.findFileNamesByFileNameIn(fileNames));
+
+        int deletedCount = 0;
+
+        for (Candidate candidate : chunk) {
+            Set<String> referencedKeys = candidate.blob() ? referencedBlobKeys : referencedFileNames;
+
+            if (referencedKeys.contains(candidate.key())) continue;
+
+            try {
+                if (Files.getLastModifiedTime(candidate.path()).toMillis() >= modifiedBefore) continue;
+
+                Files.deleteIfExists(candidate.path());
+                deletedCount++;
+            } catch (IOException e) {
+                log.warn("Failed to delete orphan %s".formatted(candidate.path()), e);
+            }
+        }
+
+        return deletedCount;
+    }
+
+    // GenFile 이 저장하는 위치의 파일만 대상으로 한다, blob/tmp, variant, 임시폴더 등은 각자 정리한다.
+    private Candidate toCandidate(Path genFileDirPath, Path path) {
+        Path relativePath = genFileDirPath.relativize(path);
+        String fileName = path.getFileName().toString();
+
+        if (relativePath.getNameCount() == 4
+                && relativePath.getName(0).toString().equals(GenFile.BLOB_DIR)
+                && BLOB_FILE_NAME.matcher(fileName).matches()) {
+            String fileHash = fileName.substring(0, 64);
+            String fileExt = fileName.length() > 64 ? fileName.substring(65) : "";
+
+            return new Candidate(path, true, fileHash, GenFileWriter.getBlobKey(fileHash, relativePath.getParent().toString().replace('\\', '/'), fileExt));
+        }
+
+        if (relativePath.getNameCount() == 3
+                && !relativePath.getName(0).toString().equals(GenFile.BLOB_DIR)
+                && !relativePath.getName(0).toString().equals(GenFileVariantService.VARIANT_DIR)
+                && LEGACY_DIR_NAME.matcher(relativePath.getName(1).toString()).matches()) {
+            return new Candidate(path, false, null, fileName);
+        }
+
+        return null;
+    }
+}
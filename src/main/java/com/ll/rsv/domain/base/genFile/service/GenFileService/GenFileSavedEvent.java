@@ -0,0 +1,5 @@
+package com.ll.rsv.domain.base.genFile.service.GenFileService;
+
+// 새 내용의 파일이 GenFile 에 저장되었을 때, 후처리를 위해 발행한다.
+public record GenFileSavedEvent(long id, String fileExt) {
+}
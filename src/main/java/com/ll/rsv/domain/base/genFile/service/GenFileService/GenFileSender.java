@@ -0,0 +1,322 @@
+package com.ll.rsv.domain.base.genFile.service.GenFileService;
+
+import com.ll.rsv.domain.base.genFile.dto.GenFileSnapshot;
+import com.ll.rsv.domain.base.genFile.service.GenFileService.GenFileVariantService.VariantFile;
+import com.ll.rsv.global.app.AppConfig;
+import com.ll.rsv.global.exceptions.GlobalException;
+import com.ll.rsv.standard.util.Ut;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// 파일 다운로드 응답을 만든다.
+// Range 요청(단일, 다중)을 지원해서 동영상 탐색시 처음부터 다시 받지 않는다.
+// 톰캣이 sendfile 을 지원하면 톰캣에게 넘기고, 아니면 FileChannel.transferTo 로 전송한다.
+// fileName 이 UUID 라서 내용이 바뀌지 않으므로, 브라우저가 이미 가지고 있으면 디스크를 읽지 않고 304 로 응답한다.
+@Component
+public class GenFileSender {
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+    // 이보다 많은 범위를 요청하면 Range 헤더를 무시하고 전체를 보낸다.
+    private static final int MAX_REGIONS_COUNT = 16;
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    // direct : 직접 전송, x-accel-redirect : nginx 가 전송, x-sendfile : apache, lighttpd 등이 전송
+    @Value("${custom.genFile.download.mode}")
+    private String mode;
+
+    // nginx 의 internal location 경로
+    @Value("${custom.genFile.download.accelRedirectPrefix}")
+    private String accelRedirectPrefix;
+
+    private record Region(long start, long end) {
+        long length() {
+            return end - start + 1;
+        }
+    }
+
+    public void send(GenFileSnapshot genFile, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        send(genFile, "", () -> new VariantFile(new File(genFile.filePath()), false), request, response);
+    }
+
+    // 원본 대신 다른 파일(썸네일 등)을 보낼 때, fileSupplier 는 304 가 아닐 때만 호출된다.
+    public void send(GenFileSnapshot genFile, String variantName, Supplier<VariantFile> fileSupplier, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String eTag = getETag(genFile, variantName);
+        long lastModified = getLastModified(genFile);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE_CACHE_CONTROL);
+
+        // If-None-Match, If-Modified-Since 를 확인해서 304, 아니면 ETag, Last-Modified 헤더 추가
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) return;
+
+        VariantFile variantFile = fileSupplier.get();
+        File file = variantFile.file();
+
+        // 축소본 대신 원본을 보내는 경우, 축소본의 ETag 로 캐시되면 다시 만들어볼 기회가 없다.
+        // 원본의 ETag 를 주고 매번 재검증하게 해서, 다음 요청의 If-None-Match 가 축소본의 ETag 와 다르도록 한다.
+        if (variantFile.fallback()) {
+            eTag = getETag(genFile, "");
+            response.setHeader(HttpHeaders.ETAG, eTag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+
+        if (!file.isFile()) throw new GlobalException.E404();
+
+        String contentType = request.getServletContext().getMimeType(file.getAbsolutePath());
+
+        if (contentType == null) contentType = "application/octet-stream";
+
+        String downloadFileName = Ut.url.encode(genFile.originFileName()).replace("%20", " ");
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + downloadFileName + "\"");
+
+        switch (mode) {
+            case "x-accel-redirect" -> {
+                response.setContentType(contentType);
+                response.setHeader("X-Accel-Redirect", accelRedirectPrefix + "/" + getRelativePath(file));
+            }
+            case "x-sendfile" -> {
+                response.setContentType(contentType);
+                response.setHeader("X-Sendfile", file.getAbsolutePath());
+            }
+            default -> sendDirect(file, contentType, eTag, lastModified, request, response);
+        }
+    }
+
+    private String getETag(GenFileSnapshot genFile, String variantName) {
+        String eTag = genFile.fileName() + "-" + genFile.fileSize() + "-" + getLastModified(genFile);
+
+        if (!variantName.isEmpty()) eTag += "-" + variantName;
+
+        return "\"" + eTag + "\"";
+    }
+
+    private long getLastModified(GenFileSnapshot genFile) {
+        return genFile.modifyDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // If-Range 가 현재 파일과 일치할 때만 Range 요청을 따른다, 약한 ETag 는 일치하지 않는 것으로 본다.
+    private boolean matchesIfRange(String ifRange, String eTag, long lastModified) {
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) return ifRange.equals(eTag);
+
+        try {
+            return ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond() == lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private String getRelativePath(File file) {
+        return Path.of(AppConfig.getGenFileDirPath()).toAbsolutePath()
+                .relativize(file.toPath().toAbsolutePath())
+                .toString()
+                .replace(File.separatorChar, '/');
+    }
+
+    private void sendDirect(File file, String contentType, String eTag, long lastModified, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long fileLength = file.length();
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+
+        if (rangeHeader != null && ifRange != null && !matchesIfRange(ifRange, eTag, lastModified)) rangeHeader = null;
+
+        if (rangeHeader == null || fileLength == 0) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            sendRegion(file, new Region(0, fileLength - 1), request, response);
+            return;
+        }
+
+        List<Region> regions = parseRegions(rangeHeader, fileLength);
+
+        // 문법이 잘못되었거나 지나친 Range 헤더는 무시하고 전체를 보낸다.
+        if (regions == null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            sendRegion(file, new Region(0, fileLength - 1), request, response);
+            return;
+        }
+
+        if (regions.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + fileLength);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+
+        if (regions.size() == 1) {
+            Region region = regions.getFirst();
+
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, toContentRange(region, fileLength));
+            sendRegion(file, region, request, response);
+            return;
+        }
+
+        sendMultipartRegions(file, contentType, fileLength, regions, request, response);
+    }
+
+    // 문법이 잘못되었거나, 범위가 너무 많거나, 범위들의 합이 파일보다 크면 null
+    // 만족하는 범위가 하나도 없으면 빈 리스트, 아니면 정렬하고 겹치거나 맞닿은 범위를 합친 리스트
+    // 같은 구간을 여러번 요청해서 작은 요청으로 큰 응답을 만들어내는 것을 막는다.
+    private List<Region> parseRegions(String rangeHeader, long fileLength) {
+        List<HttpRange> ranges;
+
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        if (ranges.size() > MAX_REGIONS_COUNT) return null;
+
+        List<Region> regions = new ArrayList<>();
+        long totalLength = 0;
+
+        for (HttpRange range : ranges) {
+            long start = range.getRangeStart(fileLength);
+            long end = range.getRangeEnd(fileLength);
+
+            if (start >= fileLength || start > end) continue;
+
+            Region region = new Region(start, end);
+            regions.add(region);
+            totalLength += region.length();
+        }
+
+        if (totalLength > fileLength) return null;
+
+        return mergeRegions(regions);
+    }
+
+    private List<Region> mergeRegions(List<Region> regions) {
+        if (regions.size() < 2) return regions;
+
+        List<Region> sortedRegions = new ArrayList<>(regions);
+        sortedRegions.sort(Comparator.comparingLong(Region::start));
+
+        List<Region> mergedRegions = new ArrayList<>();
+        Region current = sortedRegions.getFirst();
+
+        for (Region region : sortedRegions.subList(1, sortedRegions.size())) {
+            if (region.start() <= current.end() + 1) {
+                current = new Region(current.start(), Math.max(current.end(), region.end()));
+                continue;
+            }
+
+            mergedRegions.add(current);
+            current = region;
+        }
+
+        mergedRegions.add(current);
+
+        return mergedRegions;
+    }
+
+    private String toContentRange(Region region, long fileLength) {
+        return "bytes " + region.start() + "-" + region.end() + "/" + fileLength;
+    }
+
+    private boolean isHead(HttpServletRequest request) {
+        return "HEAD".equals(request.getMethod());
+    }
+
+    private void sendRegion(File file, Region region, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentLengthLong(region.length());
+
+        if (isHead(request) || region.length() == 0) return;
+
+        // 톰캣이 커널의 sendfile 로 직접 전송한다.
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.getAbsolutePath());
+            request.setAttribute(SENDFILE_START_ATTR, region.start());
+            request.setAttribute(SENDFILE_END_ATTR, region.end() + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            transfer(channel, region, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    private void sendMultipartRegions(File file, String contentType, long fileLength, List<Region> regions, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+
+        List<byte[]> partHeaders = new ArrayList<>();
+        long contentLength = 0;
+
+        for (Region region : regions) {
+            byte[] partHeader = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": " + toContentRange(region, fileLength) + "\r\n"
+                    + "\r\n").getBytes(StandardCharsets.US_ASCII);
+
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + region.length();
+        }
+
+        byte[] end = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += end.length;
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+
+        if (isHead(request)) return;
+
+        OutputStream out = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            for (int i = 0; i < regions.size(); i++) {
+                out.write(partHeaders.get(i));
+                transfer(channel, regions.get(i), target);
+            }
+        }
+
+        out.write(end);
+    }
+
+    private void transfer(FileChannel channel, Region region, WritableByteChannel target) throws IOException {
+        long position = region.start();
+        long remaining = region.length();
+
+        while (remaining > 0) {
+            long transferred = channel.transferTo(position, remaining, target);
+
+            // 전송 도중 파일이 줄어든 경우
+            if (transferred <= 0) break;
+
+            position += transferred;
+            remaining -= transferred;
+        }
+    }
+}
@@ -1,54 +1,98 @@
 package com.ll.rsv.domain.base.genFile.service.GenFileService;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ll.rsv.domain.base.genFile.dto.GenFileSnapshot;
 import com.ll.rsv.domain.base.genFile.entity.GenFile.GenFile;
+import com.ll.rsv.domain.base.genFile.entity.GenFile.GenFileDeleteTask;
+import com.ll.rsv.domain.base.genFile.repository.GenFileDeleteTaskRepository;
 import com.ll.rsv.domain.base.genFile.repository.GenFileRepository;
-import com.ll.rsv.global.app.AppConfig;
 import com.ll.rsv.global.exceptions.GlobalException;
 import com.ll.rsv.global.jpa.entity.BaseEntity;
+import com.ll.rsv.global.rqCache.RqCache;
+import com.ll.rsv.standard.util.Mp4;
 import com.ll.rsv.standard.util.Ut;
 import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class GenFileService {
     private final GenFileRepository genFileRepository;
+    private final GenFileWriter genFileWriter;
+    private final GenFileDeleteTaskRepository genFileDeleteTaskRepository;
+    private final GenFileDeleteWorker genFileDeleteWorker;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final RqCache rqCache;
+
+    // 다운로드 요청마다 조회하지 않도록 fileName -> GenFileSnapshot 을 캐시한다.
+    // fileName 은 매번 새로 만들어지는 UUID 이기 때문에, 삭제되거나 교체될 때만 비워주면 된다.
+    private final Cache<String, GenFileSnapshot> snapshotByFileName = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    // 한 요청 안에서 같은 데이터의 파일들을 다시 조회하지 않도록, 조회 결과를 RqCache 에 보관한다.
+    private static final String FILES_BY_REL_CACHE_KEY = "genFileService::filesByRel";
 
     @Transactional
+    @SneakyThrows
     public void save(BaseEntity entity, String typeCode, String type2Code, int fileNo, MultipartFile file) {
-        String filePath = Ut.file.toFile(file, AppConfig.getTempDirPath());
-
-        GenFile genFile = save(
-                entity.getModelName(),
-                entity.getId(),
-                typeCode,
-                type2Code,
-                fileNo,
-                filePath
-        );
-    }
+        // 임시폴더에 복사하고 다시 옮기지 않고, 업로드된 내용을 최종 위치에 바로 쓴다.
+        try (InputStream inputStream = file.getInputStream()) {
+            GenFileWriter.WrittenFile writtenFile = genFileWriter.write(file.getOriginalFilename(), inputStream);
 
-    private String getCurrentDirName(String relTypeCode) {
-        return relTypeCode + "/" + Ut.date.getCurrentDateFormatted("yyyy_MM_dd");
+            save(entity, typeCode, type2Code, fileNo, file.getOriginalFilename(), writtenFile);
+        }
     }
 
     @Transactional
+    @SneakyThrows
     public GenFile save(String relTypeCode, long relId, String typeCode, String type2Code, int fileNo, String filePath) {
         String originFileName = Ut.file.getOriginFileName(filePath);
-        String fileExt = Ut.file.getExt(originFileName);
+
+        GenFileWriter.WrittenFile writtenFile;
+
+        try (InputStream inputStream = Files.newInputStream(Path.of(filePath))) {
+            writtenFile = genFileWriter.write(originFileName, inputStream);
+        }
+
+        Ut.file.remove(filePath);
+
+        return save(relTypeCode, relId, typeCode, type2Code, fileNo, originFileName, writtenFile);
+    }
+
+    @Transactional
+    public GenFile save(BaseEntity entity, String typeCode, String type2Code, int fileNo, String originFileName, GenFileWriter.WrittenFile writtenFile) {
+        return save(entity.getModelName(), entity.getId(), typeCode, type2Code, fileNo, originFileName, writtenFile);
+    }
+
+    // 이미 최종 위치에 쓰여진 파일의 정보를 저장한다.
+    @Transactional
+    public GenFile save(String relTypeCode, long relId, String typeCode, String type2Code, int fileNo, String originFileName, GenFileWriter.WrittenFile writtenFile) {
+        String fileExt = writtenFile.fileExt();
         String fileExtTypeCode = Ut.file.getFileExtTypeCodeFromFileExt(fileExt);
         String fileExtType2Code = Ut.file.getFileExtType2CodeFromFileExt(fileExt);
-        long fileSize = new File(filePath).length();
-        String fileDir = getCurrentDirName(relTypeCode);
-        String fileName = UUID.randomUUID() + "." + fileExt;
 
         GenFile genFile = genFileRepository
                 .findByRelTypeCodeAndRelIdAndTypeCodeAndType2CodeAndFileNo(
@@ -56,19 +100,27 @@ public class GenFileService {
                 )
                 .orElse(null);
 
+        clearFilesByRelInRequest();
+
         if (genFile != null) {
-            genFile.deleteOnDisk();
+            invalidateSnapshot(genFile.getFileName());
+            deleteOnDiskAfterCommit(genFile);
 
             genFile.setOriginFileName(originFileName);
             genFile.setFileExtTypeCode(fileExtTypeCode);
             genFile.setFileExtType2Code(fileExtType2Code);
             genFile.setFileExt(fileExt);
-            genFile.setFileSize(fileSize);
-            genFile.setFileDir(fileDir);
-            genFile.setFileName(fileName);
+            genFile.setFileSize(writtenFile.fileSize());
+            genFile.setFileHash(writtenFile.fileHash());
+            genFile.setFileDir(writtenFile.fileDir());
+            genFile.setFileName(writtenFile.fileName());
+            genFile.setDurationMs(null);
+            genFile.setWidth(null);
+            genFile.setHeight(null);
+            genFile.setCodec(null);
         } else {
             genFile = GenFile.builder()
-                    .fileName(fileName)
+                    .fileName(writtenFile.fileName())
                     .relTypeCode(relTypeCode)
                     .relId(relId)
                     .typeCode(typeCode)
@@ -76,36 +128,124 @@ public class GenFileService {
                     .fileNo(fileNo)
                     .fileExtTypeCode(fileExtTypeCode)
                     .fileExtType2Code(fileExtType2Code)
-                    .fileSize(fileSize)
+                    .fileSize(writtenFile.fileSize())
+                    .fileHash(writtenFile.fileHash())
                     .fileExt(fileExt)
-                    .fileDir(fileDir)
+                    .fileDir(writtenFile.fileDir())
                     .originFileName(originFileName)
                     .build();
 
             genFileRepository.save(genFile);
         }
 
-        File file = new File(genFile.getFilePath());
+        applicationEventPublisher.publishEvent(new GenFileSavedEvent(genFile.getId(), fileExt));
 
-        file.getParentFile().mkdirs();
+        return genFile;
+    }
 
-        Ut.file.moveFile(filePath, file);
-        Ut.file.remove(filePath);
+    public Optional<GenFile> findById(long id) {
+        return genFileRepository.findById(id);
+    }
 
-        return genFile;
+    // 후처리 결과를 반영한다, writtenFile 이 있으면 내용도 바뀐 것
+    // 내용이 바뀌면 fileName 도 바꾼다, fileName 이 같으면 내용도 같다고 보고 다운로드 응답을 immutable 로 캐시하기 때문이다.
+    @Transactional
+    public void applyVideoInfo(long id, String fileHash, GenFileWriter.WrittenFile writtenFile, Mp4.Info info) {
+        GenFile genFile = genFileRepository.findById(id).orElse(null);
+
+        // 처리하는 동안 삭제되거나 다른 파일로 교체된 경우
+        if (genFile == null || !Objects.equals(genFile.getFileHash(), fileHash)) {
+            if (writtenFile != null) deleteOnDiskIfUnreferenced(writtenFile);
+            return;
+        }
+
+        if (writtenFile != null) {
+            invalidateSnapshot(genFile.getFileName());
+            deleteOnDiskAfterCommit(genFile);
+
+            genFile.setFileSize(writtenFile.fileSize());
+            genFile.setFileHash(writtenFile.fileHash());
+            genFile.setFileDir(writtenFile.fileDir());
+            genFile.setFileName(writtenFile.fileName());
+        }
+
+        genFile.setDurationMs(info.durationMs());
+        genFile.setWidth(info.width());
+        genFile.setHeight(info.height());
+        genFile.setCodec(info.codec());
     }
 
     public List<GenFile> findByRel(BaseEntity entity) {
-        return genFileRepository.findByRelTypeCodeAndRelId(entity.getModelName(), entity.getId());
+        return findByRelIn(entity.getModelName(), List.of(entity.getId())).get(entity.getId());
     }
 
-    public Optional<GenFile> findByFileName(String fileName) {
-        return genFileRepository.findByFileName(fileName);
+    // relId -> 파일들, 파일이 없는 relId 도 빈 리스트로 들어있다.
+    public Map<Long, List<GenFile>> findByRelIn(String relTypeCode, List<Long> relIds) {
+        Map<String, List<GenFile>> filesByRel = getFilesByRelInRequest();
+
+        List<Long> notLoadedRelIds = relIds
+                .stream()
+                .distinct()
+                .filter(relId -> !filesByRel.containsKey(relTypeCode + "/" + relId))
+                .toList();
+
+        if (!notLoadedRelIds.isEmpty()) {
+            Map<Long, List<GenFile>> loaded = genFileRepository
+                    .findByRelTypeCodeAndRelIdIn(relTypeCode, notLoadedRelIds)
+                    .stream()
+                    .collect(Collectors.groupingBy(GenFile::getRelId));
+
+            notLoadedRelIds.forEach(relId -> filesByRel.put(relTypeCode + "/" + relId, loaded.getOrDefault(relId, List.of())));
+        }
+
+        return relIds
+                .stream()
+                .distinct()
+                .collect(Collectors.toMap(
+                        relId -> relId,
+                        relId -> filesByRel.get(relTypeCode + "/" + relId)
+                ));
+    }
+
+    // 요청 밖(스케줄러 등)에서는 보관하지 않는다.
+    @SuppressWarnings("unchecked")
+    private Map<String, List<GenFile>> getFilesByRelInRequest() {
+        if (RequestContextHolder.getRequestAttributes() == null) return new HashMap<>();
+
+        return (Map<String, List<GenFile>>) rqCache.computeIfAbsent(FILES_BY_REL_CACHE_KEY, key -> new HashMap<String, List<GenFile>>());
+    }
+
+    private void clearFilesByRelInRequest() {
+        if (RequestContextHolder.getRequestAttributes() == null) return;
+
+        rqCache.remove(FILES_BY_REL_CACHE_KEY);
+    }
+
+    public Optional<GenFileSnapshot> findSnapshotByFileName(String fileName) {
+        return Optional.ofNullable(
+                snapshotByFileName.get(fileName, key -> genFileRepository.findByFileName(key).map(GenFileSnapshot::new).orElse(null))
+        );
+    }
+
+    // 커밋 전에 다른 요청이 옛날 값을 다시 캐시할 수 있으므로 커밋 후에 한번 더 지운다.
+    private void invalidateSnapshot(String fileName) {
+        snapshotByFileName.invalidate(fileName);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                snapshotByFileName.invalidate(fileName);
+            }
+        });
     }
 
     @Transactional
     public GenFile delete(GenFile genFile) {
-        genFile.deleteOnDisk();
+        clearFilesByRelInRequest();
+        invalidateSnapshot(genFile.getFileName());
+        deleteOnDiskAfterCommit(genFile);
         genFileRepository.delete(genFile);
 
         return genFile;
@@ -129,4 +269,52 @@ public class GenFileService {
         findByRel(entity)
                 .forEach(this::delete);
     }
+
+    // 삭제할 파일을 같은 트랜잭션 안에서 기록해두고, 커밋된 후에 GenFileDeleteWorker 가 지운다.
+    // 롤백되면 기록도 사라지므로 GenFile 이 가리키는 파일이 먼저 지워지는 일이 없다.
+    private void deleteOnDiskAfterCommit(GenFile genFile) {
+        queueDeleteTask(
+                genFile.getFileDir(),
+                genFile.getStoredFileName(),
+                genFile.isBlob() ? genFile.getFileHash() : null,
+                genFile.getFileExt()
+        );
+    }
+
+    // 파일은 썼지만 GenFile 저장에 실패했거나, 후처리 결과를 반영하지 못한 경우
+    // 같은 내용을 올리는 다른 요청이 이 blob 을 재사용했지만 아직 커밋하지 않았을 수 있으므로 바로 지우지 않는다.
+    // GenFileDeleteWorker 가 최근에 재사용된 blob 인지, 참조하는 GenFile 이 있는지 확인한 후에 지운다.
+    @Transactional
+    public void deleteOnDiskIfUnreferenced(GenFileWriter.WrittenFile writtenFile) {
+        queueDeleteTask(
+                writtenFile.fileDir(),
+                GenFile.getBlobFileName(writtenFile.fileHash(), writtenFile.fileExt()),
+                writtenFile.fileHash(),
+                writtenFile.fileExt()
+        );
+    }
+
+    private void queueDeleteTask(String fileDir, String storedFileName, String fileHash, String fileExt) {
+        genFileDeleteTaskRepository.save(
+                GenFileDeleteTask.builder()
+                        .fileDir(fileDir)
+                        .storedFileName(storedFileName)
+                        .fileHash(fileHash)
+                        .fileExt(fileExt)
+                        .nextTryDate(LocalDateTime.now())
+                        .build()
+        );
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            genFileDeleteWorker.wakeUp();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                genFileDeleteWorker.wakeUp();
+            }
+        });
+    }
 }
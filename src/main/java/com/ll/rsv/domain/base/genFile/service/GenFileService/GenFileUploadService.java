@@ -0,0 +1,288 @@
+package com.ll.rsv.domain.base.genFile.service.GenFileService;
+
+import com.ll.rsv.global.exceptions.GlobalException;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// 큰 파일을 청크로 나눠서 올리는 이어올리기
+// 시작 -> 청크 업로드(순서 상관 없이 동시에 가능) -> 상태 조회(받지 못한 청크 확인) -> 완료
+// 청크는 미리 만들어둔 파일의 해당 위치에 바로 쓰고, 완료되면 blob 으로 옮기기만 한다.
+// 청크 쓰기끼리는 동시에 가능하지만, 완료 처리와는 세션의 락으로 배타적이다, 완료가 시작되면 더 이상 쓸 수 없다.
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class GenFileUploadService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final GenFileWriter genFileWriter;
+
+    @Value("${custom.genFile.upload.chunkSize}")
+    private DataSize chunkSize;
+
+    @Value("${custom.genFile.upload.maxFileSize}")
+    private DataSize maxFileSize;
+
+    // 마지막 요청 후 이 시간이 지나면 버려진 것으로 본다.
+    @Value("${custom.genFile.upload.sessionExpirationSec}")
+    private long sessionExpirationSec;
+
+    // 한 회원이 동시에 열어둘 수 있는 세션 수, 세션마다 파일 크기만큼 디스크를 미리 잡는다.
+    @Value("${custom.genFile.upload.maxSessionsPerMember}")
+    private int maxSessionsPerMember;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    @Getter
+    public static class UploadSession {
+        private final String id;
+        private final long memberId;
+        // 누가, 어디에 올리는지
+        private final String ownerKey;
+        private final String originFileName;
+        private final long fileSize;
+        private final long chunkSize;
+        private final int chunksCount;
+        private final Path path;
+        private final BitSet receivedChunks;
+        private volatile long lastAccessedAt;
+        // 청크 쓰기는 읽기 락, 완료 처리는 쓰기 락
+        @Getter(AccessLevel.NONE)
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        // lock 안에서만 읽고 쓴다.
+        @Getter(AccessLevel.NONE)
+        private boolean completing;
+
+        private UploadSession(String id, long memberId, String ownerKey, String originFileName, long fileSize, long chunkSize, Path path) {
+            this.id = id;
+            this.memberId = memberId;
+            this.ownerKey = ownerKey;
+            this.originFileName = originFileName;
+            this.fileSize = fileSize;
+            this.chunkSize = chunkSize;
+            this.chunksCount = (int) ((fileSize + chunkSize - 1) / chunkSize);
+            this.path = path;
+            this.receivedChunks = new BitSet(chunksCount);
+            this.lastAccessedAt = System.currentTimeMillis();
+        }
+
+        private void touch() {
+            lastAccessedAt = System.currentTimeMillis();
+        }
+
+        private synchronized void markReceived(int chunkIndex) {
+            receivedChunks.set(chunkIndex);
+        }
+
+        public synchronized List<Integer> getReceivedChunkIndexes() {
+            return receivedChunks.stream().boxed().toList();
+        }
+
+        public synchronized boolean isCompleted() {
+            return receivedChunks.cardinality() == chunksCount;
+        }
+    }
+
+    @SneakyThrows
+    public UploadSession init(long memberId, String ownerKey, String originFileName, long fileSize) {
+        if (fileSize <= 0 || fileSize > maxFileSize.toBytes())
+            throw new GlobalException("400-1", "파일 크기는 1바이트 이상 %dMB 이하여야 합니다.".formatted(maxFileSize.toMegabytes()));
+
+        String id = UUID.randomUUID().toString();
+        Path path = genFileWriter.getTempDirPath().resolve("upload-" + id);
+        UploadSession session = new UploadSession(id, memberId, ownerKey, originFileName, fileSize, chunkSize.toBytes(), path);
+
+        // 동시에 시작해도 최대 개수를 넘지 않도록 세기와 추가를 함께 한다.
+        synchronized (sessions) {
+            long memberSessionsCount = sessions.values().stream()
+                    .filter(_session -> _session.getMemberId() == memberId)
+                    .count();
+
+            if (memberSessionsCount >= maxSessionsPerMember)
+                throw new GlobalException("400-7", "동시에 진행할 수 있는 업로드는 %d개까지 입니다.".formatted(maxSessionsPerMember));
+
+            sessions.put(id, session);
+        }
+
+        try {
+            Files.createDirectories(path.getParent());
+
+            // 전체 크기의 빈 파일을 미리 만들어두고, 청크는 각자의 위치에 쓴다.
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+                file.setLength(fileSize);
+            }
+        } catch (IOException e) {
+            sessions.remove(id, session);
+            deleteQuietly(path);
+            throw e;
+        }
+
+        return session;
+    }
+
+    public UploadSession get(String uploadId, String ownerKey) {
+        UploadSession session = sessions.get(uploadId);
+
+        if (session == null) throw new GlobalException.E404();
+
+        if (!session.getOwnerKey().equals(ownerKey))
+            throw new GlobalException.E403();
+
+        session.touch();
+
+        return session;
+    }
+
+    public void writeChunk(UploadSession session, long offset, String chunkSha256, InputStream inputStream) {
+        if (offset < 0 || offset >= session.getFileSize() || offset % session.getChunkSize() != 0)
+            throw new GlobalException("400-1", "잘못된 offset 입니다.");
+
+        // 완료 처리 중이면 기다리지 않고 거절한다.
+        if (!session.lock.readLock().tryLock())
+            throw new GlobalException("400-6", "이미 완료된 업로드입니다.");
+
+        try {
+            if (session.completing)
+                throw new GlobalException("400-6", "이미 완료된 업로드입니다.");
+
+            writeChunkLocked(session, offset, chunkSha256, inputStream);
+        } finally {
+            session.lock.readLock().unlock();
+        }
+    }
+
+    @SneakyThrows
+    private void writeChunkLocked(UploadSession session, long offset, String chunkSha256, InputStream inputStream) {
+        int chunkIndex = (int) (offset / session.getChunkSize());
+        long expectedLength = Math.min(session.getChunkSize(), session.getFileSize() - offset);
+
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        long written = 0;
+
+        try (FileChannel channel = FileChannel.open(session.getPath(), StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+
+            while ((read = inputStream.read(buffer)) != -1) {
+                if (written + read > expectedLength)
+                    throw new GlobalException("400-2", "청크의 크기가 올바르지 않습니다.");
+
+                digest.update(buffer, 0, read);
+
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                long position = offset + written;
+
+                while (byteBuffer.hasRemaining()) {
+                    position += channel.write(byteBuffer, position);
+                }
+
+                written += read;
+            }
+        } catch (IOException e) {
+            // 세션이 만료되어 파일이 지워졌거나, 전송이 끊긴 경우
+            log.warn("Failed to write chunk at %d of upload %s".formatted(offset, session.getId()), e);
+            throw new GlobalException("400-3", "청크를 저장하지 못했습니다.");
+        }
+
+        if (written != expectedLength)
+            throw new GlobalException("400-2", "청크의 크기가 올바르지 않습니다.");
+
+        if (!HexFormat.of().formatHex(digest.digest()).equalsIgnoreCase(chunkSha256))
+            throw new GlobalException("400-4", "청크의 SHA-256 이 일치하지 않습니다.");
+
+        session.markReceived(chunkIndex);
+        session.touch();
+    }
+
+    public GenFileWriter.WrittenFile complete(UploadSession session) {
+        // 저장 중인 청크가 있으면 기다리지 않고 거절한다, 클라이언트는 청크 응답을 받은 후 다시 요청하면 된다.
+        if (!session.lock.writeLock().tryLock())
+            throw new GlobalException("400-5", "아직 저장 중인 청크가 있습니다.");
+
+        try {
+            // 동시에 완료 요청이 들어와도 한번만 처리한다.
+            if (session.completing) throw new GlobalException.E404();
+
+            if (!session.isCompleted())
+                throw new GlobalException("400-5", "아직 받지 못한 청크가 있습니다.");
+
+            if (!sessions.remove(session.getId(), session)) throw new GlobalException.E404();
+
+            session.completing = true;
+        } finally {
+            session.lock.writeLock().unlock();
+        }
+
+        // 이제 이 세션에 쓰는 요청은 없으므로, 락 없이 해시를 구하고 옮긴다.
+        return genFileWriter.write(session.getOriginFileName(), session.getPath());
+    }
+
+    // 버려진 세션과, 어떤 세션에도 속하지 않는 오래된 임시파일들을 지운다.
+    @Scheduled(fixedDelay = 10 * 60 * 1000)
+    public void sweep() {
+        long expiredBefore = System.currentTimeMillis() - sessionExpirationSec * 1000;
+
+        sessions.values().forEach(session -> {
+            if (session.getLastAccessedAt() >= expiredBefore) return;
+            if (!sessions.remove(session.getId(), session)) return;
+
+            deleteQuietly(session.getPath());
+        });
+
+        Path tempDirPath = genFileWriter.getTempDirPath();
+
+        if (!Files.isDirectory(tempDirPath)) return;
+
+        Set<Path> livePaths = sessions.values().stream()
+                .map(UploadSession::getPath)
+                .collect(Collectors.toSet());
+
+        try (Stream<Path> paths = Files.list(tempDirPath)) {
+            paths
+                    .filter(Files::isRegularFile)
+                    .filter(path -> !livePaths.contains(path))
+                    .filter(path -> getLastModified(path) < expiredBefore)
+                    .forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.error("Failed to sweep temp dir", e);
+        }
+    }
+
+    private long getLastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.error("Failed to delete %s".formatted(path), e);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.ll.rsv.domain.base.genFile.service.GenFileService;
+
+import com.ll.rsv.domain.base.genFile.dto.GenFileSnapshot;
+import com.ll.rsv.global.app.AppConfig;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// 이미지의 축소본(썸네일)을 처음 요청될 때 만들어서 디스크에 보관한다.
+// 같은 축소본을 동시에 요청해도 한번만 만들고, 폴더 크기가 정해진 크기를 넘으면 오래 사용되지 않은 것부터 지운다.
+@Service
+@Slf4j
+public class GenFileVariantService {
+    public static final String VARIANT_DIR = "variant";
+    // 이보다 큰 이미지는 메모리를 너무 많이 쓰므로 원본을 그대로 보낸다.
+    private static final long MAX_SOURCE_PIXELS = 50_000_000;
+
+    @Value("${custom.genFile.variant.widths}")
+    private List<Integer> widths;
+
+    @Value("${custom.genFile.variant.maxDirSize}")
+    private DataSize maxDirSize;
+
+    private final Map<Path, CompletableFuture<VariantFile>> generating = new ConcurrentHashMap<>();
+
+    // fallback : 축소본을 만들다 실패해서 대신 원본을 보내는 경우, 다음 요청에서 다시 만들어봐야 하므로 캐시되면 안된다.
+    public record VariantFile(File file, boolean fallback) {
+    }
+
+    // 요청한 너비 이상인 가장 작은 허용 너비, 없으면 가장 큰 너비
+    public int getVariantWidth(int w) {
+        return widths.stream()
+                .sorted()
+                .filter(width -> width >= w)
+                .findFirst()
+                .orElse(widths.stream().max(Integer::compare).orElseThrow());
+    }
+
+    public boolean supports(GenFileSnapshot genFile) {
+        // 움직이는 gif 는 ImageIO 로 줄이면 첫 프레임만 남는다.
+        return genFile.fileExtTypeCode().equals("img") && !genFile.fileExt().equals("gif");
+    }
+
+    // 원본이 이미 충분히 작거나 줄일 수 없으면 원본 파일
+    @SneakyThrows
+    public VariantFile getVariantFile(GenFileSnapshot genFile, int width) {
+        File source = new File(genFile.filePath());
+        Path variantPath = getVariantPath(genFile, width);
+
+        if (Files.exists(variantPath)) {
+            touch(variantPath);
+            return new VariantFile(variantPath.toFile(), false);
+        }
+
+        CompletableFuture<VariantFile> future = new CompletableFuture<>();
+        CompletableFuture<VariantFile> existing = generating.putIfAbsent(variantPath, future);
+
+        // 다른 요청이 만드는 중이면 그 결과를 기다린다.
+        if (existing != null) return existing.get();
+
+        try {
+            VariantFile variant = new VariantFile(generate(source, variantPath, width, getFormatName(genFile.fileExt())), false);
+            future.complete(variant);
+
+            return variant;
+        } catch (Exception e) {
+            log.warn("Failed to generate variant of %s".formatted(genFile.fileName()), e);
+
+            VariantFile fallback = new VariantFile(source, true);
+            future.complete(fallback);
+
+            return fallback;
+        } finally {
+            generating.remove(variantPath, future);
+        }
+    }
+
+    // blob 이면 같은 내용의 GenFile 들이 축소본도 공유한다.
+    private Path getVariantPath(GenFileSnapshot genFile, int width) {
+        String storedFileName = genFile.storedFileName();
+        String baseName = storedFileName.contains(".") ? storedFileName.substring(0, storedFileName.lastIndexOf(".")) : storedFileName;
+        String variantFileName = baseName + "_w" + width + "." + getFormatName(genFile.fileExt());
+
+        return Path.of(AppConfig.getGenFileDirPath(), VARIANT_DIR, baseName.substring(0, 2), variantFileName);
+    }
+
+    private String getFormatName(String fileExt) {
+        return fileExt.equals("png") ? "png" : "jpg";
+    }
+
+    private File generate(File source, Path variantPath, int width, String formatName) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source)) {
+            if (in == null) return source;
+
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+
+            if (!readers.hasNext()) return source;
+
+            ImageReader reader = readers.next();
+
+            try {
+                reader.setInput(in, true, true);
+
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+
+                if (sourceWidth <= width) return source;
+                if ((long) sourceWidth * sourceHeight > MAX_SOURCE_PIXELS) return source;
+
+                // 목표 크기의 2배 정도까지는 디코딩하면서 바로 줄여서 메모리를 아낀다.
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, sourceWidth / (width * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+                BufferedImage image = reader.read(0, param);
+                int height = Math.max(1, (int) Math.round((double) sourceHeight * width / sourceWidth));
+
+                BufferedImage resized = resize(image, width, height, formatName.equals("png"));
+
+                Files.createDirectories(variantPath.getParent());
+                Path tempPath = variantPath.resolveSibling(UUID.randomUUID() + ".tmp");
+
+                try {
+                    ImageIO.write(resized, formatName, tempPath.toFile());
+                    Files.move(tempPath, variantPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    Files.deleteIfExists(tempPath);
+                }
+
+                return variantPath.toFile();
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage image, int width, int height, boolean hasAlpha) {
+        BufferedImage resized = new BufferedImage(width, height, hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            // 투명 배경 이미지를 jpg 로 저장할 때 검은 배경이 되지 않도록
+            if (!hasAlpha) {
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        return resized;
+    }
+
+    // 마지막 사용 시각을 수정시각에 기록해서 LRU 로 지울 때 사용한다.
+    private void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+        }
+    }
+
+    // 폴더 크기가 최대 크기를 넘으면, 최대 크기의 90% 가 될 때까지 오래 사용되지 않은 것부터 지운다.
+    @Scheduled(fixedDelay = 10 * 60 * 1000)
+    public void evict() {
+        Path variantDirPath = Path.of(AppConfig.getGenFileDirPath(), VARIANT_DIR);
+
+        if (!Files.isDirectory(variantDirPath)) return;
+
+        record Variant(Path path, long size, long lastModified) {
+        }
+
+        List<Variant> variants;
+
+        try (Stream<Path> paths = Files.walk(variantDirPath)) {
+            variants = paths
+                    .filter(Files::isRegularFile)
+                    .map(path -> {
+                        try {
+                            return new Variant(path, Files.size(path), Files.getLastModifiedTime(path).toMillis());
+                        } catch (IOException e) {
+                            return null;
+                        }
+                    })
+                    .filter(Objects::nonNull)
+                    .sorted(Comparator.comparingLong(Variant::lastModified))
+                    .toList();
+        } catch (IOException e) {
+            log.error("Failed to list variants", e);
+            return;
+        }
+
+        long totalSize = variants.stream().mapToLong(Variant::size).sum();
+
+        if (totalSize <= maxDirSize.toBytes()) return;
+
+        long targetSize = maxDirSize.toBytes() / 10 * 9;
+
+        for (Variant variant : variants) {
+            if (totalSize <= targetSize) break;
+
+            try {
+                Files.deleteIfExists(variant.path());
+                totalSize -= variant.size();
+            } catch (IOException e) {
+                log.error("Failed to delete %s".formatted(variant.path()), e);
+            }
+        }
+    }
+}
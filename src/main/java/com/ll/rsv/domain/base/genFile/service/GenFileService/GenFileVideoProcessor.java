@@ -0,0 +1,100 @@
+package com.ll.rsv.domain.base.genFile.service.GenFileService;
+
+import com.ll.rsv.domain.base.genFile.entity.GenFile.GenFile;
+import com.ll.rsv.standard.util.Mp4;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// 업로드된 동영상의 후처리
+// moov 를 앞으로 옮겨서(faststart) 끝부분을 받지 않아도 바로 재생되게 하고, 재생시간, 해상도, 코덱을 기록한다.
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class GenFileVideoProcessor {
+    private static final Set<String> FILE_EXTS = Set.of("mp4", "m4v", "mov");
+
+    private final GenFileService genFileService;
+    private final GenFileWriter genFileWriter;
+
+    // 동영상 전체를 읽고 쓰므로, 업로드가 몰려도 디스크를 다 쓰지 않도록 동시에 처리하는 개수를 제한한다.
+    @Value("${custom.genFile.video.threadsCount}")
+    private int threadsCount;
+
+    @Value("${custom.genFile.video.queueCapacity}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(
+                threadsCount,
+                threadsCount,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name("genFile-video-", 0).factory()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // 커밋된 후에, 요청 스레드를 붙잡지 않도록 별도의 스레드에서 처리한다.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaved(GenFileSavedEvent event) {
+        if (!FILE_EXTS.contains(event.fileExt())) return;
+
+        try {
+            executor.execute(() -> process(event.id()));
+        } catch (RejectedExecutionException e) {
+            // 후처리를 하지 않아도 파일은 그대로 사용할 수 있다.
+            log.warn("Skip processing genFile %d : queue is full".formatted(event.id()));
+        }
+    }
+
+    private void process(long id) {
+        GenFile genFile = genFileService.findById(id).orElse(null);
+
+        if (genFile == null) return;
+
+        Path target = genFileWriter.getTempDirPath().resolve(UUID.randomUUID().toString());
+
+        try {
+            Files.createDirectories(target.getParent());
+
+            Mp4.Result result = Mp4.faststart(Path.of(genFile.getFilePath()), target);
+
+            // 내용이 바뀌었으므로 새로운 blob 이 된다.
+            GenFileWriter.WrittenFile writtenFile = result.relocated() ? genFileWriter.write(genFile.getOriginFileName(), target) : null;
+
+            genFileService.applyVideoInfo(id, genFile.getFileHash(), writtenFile, result.info());
+        } catch (Mp4.UnsupportedMp4Exception e) {
+            log.info("Skip processing genFile %d : %s".formatted(id, e.getMessage()));
+        } catch (Exception e) {
+            log.error("Failed to process genFile %d".formatted(id), e);
+        } finally {
+            try {
+                Files.deleteIfExists(target);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.ll.rsv.domain.base.genFile.service.GenFileService;
+
+import com.ll.rsv.domain.base.genFile.entity.GenFile.GenFile;
+import com.ll.rsv.global.app.AppConfig;
+import com.ll.rsv.global.exceptions.GlobalException;
+import com.ll.rsv.standard.util.Ut;
+import lombok.SneakyThrows;
+import org.apache.tika.Tika;
+import org.apache.tika.mime.MimeTypeException;
+import org.apache.tika.mime.MimeTypes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.UUID;
+
+// 업로드된 내용을 한번만 읽어서 blob 폴더에 쓴다.
+// 쓰는 동안 크기와 SHA-256 을 같이 구하고, 앞부분만 보고 Tika 로 MIME 타입을 판별한다.
+// 다 쓰고 나면 해시로 정해지는 최종 위치로 옮기는데, 같은 내용의 blob 이 이미 있으면 새로 쓴 파일은 버린다.
+@Component
+public class GenFileWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Tika tika = new Tika();
+
+    @Value("${spring.servlet.multipart.max-file-size}")
+    private DataSize maxFileSize;
+
+    public record WrittenFile(String fileDir, String fileName, String fileExt, long fileSize, String fileHash, String mimeType) {
+        public String getFilePath() {
+            return AppConfig.getGenFileDirPath() + "/" + fileDir + "/" + GenFile.getBlobFileName(fileHash, fileExt);
+        }
+    }
+
+    // blob 하나를 가리키는 키, GenFile 과 GenFileDeleteTask, 디스크의 파일을 대조할 때 모두 이것을 쓴다.
+    // 해시만으로 비교하면 확장자가 다른 같은 내용의 blob 을 참조 중인 것으로 잘못 볼 수 있다.
+    public static String getBlobKey(String fileHash, String fileDir, String fileExt) {
+        return fileDir + "/" + GenFile.getBlobFileName(fileHash, fileExt);
+    }
+
+    // 최종 위치와 같은 파일시스템에 있어야 복사 없이 옮길 수 있다.
+    public Path getTempDirPath() {
+        return Path.of(AppConfig.getGenFileDirPath(), GenFile.BLOB_DIR, "tmp");
+    }
+
+    @SneakyThrows
+    public WrittenFile write(String originFileName, InputStream inputStream) {
+        BufferedInputStream in = new BufferedInputStream(inputStream, BUFFER_SIZE);
+
+        // mark/reset 을 지원하는 스트림이라 판별 후에도 처음부터 다시 읽을 수 있다.
+        String mimeType = tika.detect(in, originFileName);
+
+        Path tempPath = getTempDirPath().resolve(UUID.randomUUID().toString());
+
+        Files.createDirectories(tempPath.getParent());
+
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        long fileSize = 0;
+
+        try (
+                DigestInputStream digestIn = new DigestInputStream(in, digest);
+                OutputStream out = Files.newOutputStream(tempPath)
+        ) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+
+            while ((read = digestIn.read(buffer)) != -1) {
+                fileSize += read;
+
+                if (fileSize > maxFileSize.toBytes())
+                    throw new GlobalException("400-1", "파일 크기는 %dMB 를 넘을 수 없습니다.".formatted(maxFileSize.toMegabytes()));
+
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | GlobalException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+
+        return moveToBlob(tempPath, originFileName, mimeType, fileSize, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    // 이미 임시폴더에 다 써진 파일(이어올리기 등)을 blob 으로 옮긴다, 해시를 구하기 위해 한번 읽기만 한다.
+    @SneakyThrows
+    public WrittenFile write(String originFileName, Path tempPath) {
+        String mimeType = tika.detect(tempPath);
+
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+        try (InputStream in = new DigestInputStream(Files.newInputStream(tempPath), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+
+        return moveToBlob(tempPath, originFileName, mimeType, Files.size(tempPath), HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private WrittenFile moveToBlob(Path tempPath, String originFileName, String mimeType, long fileSize, String fileHash) throws IOException {
+        String fileExt = Ut.file.getExt(originFileName);
+
+        if (fileExt.isEmpty()) fileExt = getExtFromMimeType(mimeType);
+
+        String fileDir = GenFile.getBlobFileDir(fileHash);
+        // GenFile 마다 고유한 이름, 다운로드 URL 에 사용된다.
+        String fileName = UUID.randomUUID() + "." + fileExt;
+
+        WrittenFile writtenFile = new WrittenFile(fileDir, fileName, fileExt, fileSize, fileHash, mimeType);
+        Path blobPath = Path.of(writtenFile.getFilePath());
+
+        if (Files.exists(blobPath)) {
+            Files.delete(tempPath);
+            // 지우려고 대기 중인 blob 이면 GenFileDeleteWorker 가 한동안 지우지 않도록
+            Files.setLastModifiedTime(blobPath, FileTime.fromMillis(System.currentTimeMillis()));
+        } else {
+            Files.createDirectories(blobPath.getParent());
+            Files.move(tempPath, blobPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return writtenFile;
+    }
+
+    private String getExtFromMimeType(String mimeType) {
+        try {
+            String ext = MimeTypes.getDefaultMimeTypes().forName(mimeType).getExtension();
+
+            return ext.isEmpty() ? "" : ext.substring(1).replace("jpeg", "jpg");
+        } catch (MimeTypeException e) {
+            return "";
+        }
+    }
+}
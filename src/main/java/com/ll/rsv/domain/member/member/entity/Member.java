@@ -73,6 +73,10 @@ public class Member extends BaseTime {
     }
 
     public String getProfileImgUrlOrDefault() {
+        return getProfileImgUrlOrDefault(profileImgUrl);
+    }
+
+    public static String getProfileImgUrlOrDefault(String profileImgUrl) {
         return Ut.str.hasLength(profileImgUrl) ? profileImgUrl : "https://placehold.co/640x640?text=O_O";
     }
 
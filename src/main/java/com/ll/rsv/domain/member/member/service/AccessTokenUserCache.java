@@ -0,0 +1,74 @@
+package com.ll.rsv.domain.member.member.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.ll.rsv.global.security.SecurityUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// 검증이 끝난 엑세스 토큰의 SecurityUser 를 토큰 만료시각까지 캐시한다.
+// 같은 토큰으로 반복되는 요청은 서명 검증을 다시 하지 않는다.
+@Component
+@RequiredArgsConstructor
+public class AccessTokenUserCache {
+    private final MeterRegistry meterRegistry;
+
+    @Value("${custom.accessToken.cache.maxSize}")
+    private long maxSize;
+
+    private Cache<String, Entry> cache;
+
+    public record Entry(SecurityUser securityUser, long expireAtMillis) {
+    }
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry value, long currentTime) {
+                        long remainMillis = value.expireAtMillis() - System.currentTimeMillis();
+
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "accessTokenUser");
+    }
+
+    // loader 가 null 을 반환하면(유효하지 않은 토큰) 캐시하지 않는다.
+    public SecurityUser get(String accessToken, Function<String, Entry> loader) {
+        Entry entry = cache.get(accessToken, loader);
+
+        if (entry == null) return null;
+
+        // 만료 직후 아직 정리되지 않은 항목
+        if (entry.expireAtMillis() <= System.currentTimeMillis()) {
+            cache.invalidate(accessToken);
+            return null;
+        }
+
+        return entry.securityUser();
+    }
+}
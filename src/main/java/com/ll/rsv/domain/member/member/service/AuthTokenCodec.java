@@ -0,0 +1,90 @@
+package com.ll.rsv.domain.member.member.service;
+
+import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.Decoders;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+// JWT 서명키와 파서를 시작할 때 한번만 만들어두고 재사용한다, 둘 다 불변이라 여러 스레드에서 공유해도 안전하다.
+// 키 교체 : 새 키를 secretKey/keyId 로 지정하고, 이전 키는 oldSecretKeys 에 "kid=키" 로 남겨두면 이전 키로 서명된 토큰도 만료될 때까지 인정된다.
+@Component
+public class AuthTokenCodec {
+    @Value("${custom.jwt.secretKey}")
+    private String secretKey;
+
+    @Value("${custom.jwt.keyId}")
+    private String keyId;
+
+    // kid1=키1,kid2=키2
+    @Value("${custom.jwt.oldSecretKeys}")
+    private String oldSecretKeys;
+
+    private SecretKey signingKey;
+    private Map<String, SecretKey> verifyingKeys;
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = toSecretKey(secretKey);
+
+        Map<String, SecretKey> keys = new HashMap<>();
+
+        for (String oldSecretKey : oldSecretKeys.split(",")) {
+            if (oldSecretKey.isBlank()) continue;
+
+            String[] bits = oldSecretKey.trim().split("=", 2);
+            keys.put(bits[0], toSecretKey(bits[1]));
+        }
+
+        keys.put(keyId, signingKey);
+        verifyingKeys = Map.copyOf(keys);
+
+        parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        String kid = header.getKeyId();
+
+                        // kid 가 없는 토큰은 키 교체 기능 이전에 발급된 토큰
+                        if (kid == null) return signingKey;
+
+                        SecretKey key = verifyingKeys.get(kid);
+
+                        if (key == null) throw new UnsupportedJwtException("알 수 없는 kid 입니다.");
+
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    // 기존 토큰과 호환되도록 BASE64 로 디코딩한 키를 HS256 으로 사용한다.
+    private SecretKey toSecretKey(String base64EncodedSecretKey) {
+        return new SecretKeySpec(Decoders.BASE64.decode(base64EncodedSecretKey), "HmacSHA256");
+    }
+
+    public String encode(Map<String, Object> claims, long expireSeconds) {
+        long now = System.currentTimeMillis();
+
+        return Jwts.builder()
+                .header().keyId(keyId).and()
+                .claims(claims)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + 1000 * expireSeconds))
+                .signWith(signingKey, Jwts.SIG.HS256)
+                .compact();
+    }
+
+    // 서명이 유효하지 않거나 만료되었으면 JwtException
+    public Claims decode(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+}
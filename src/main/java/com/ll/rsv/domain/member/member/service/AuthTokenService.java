@@ -3,68 +3,70 @@ package com.ll.rsv.domain.member.member.service;
 import com.ll.rsv.domain.member.member.entity.Member;
 import com.ll.rsv.global.app.AppConfig;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.security.SecureRandom;
 import java.util.Base64;
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class AuthTokenService {
-    public String genToken(Member member, long expireSeconds) {
-        Claims claims = Jwts
-                .claims()
-                .add("id", member.getId())
-                .add("username", member.getUsername())
-                .add("authorities", member.getAuthoritiesAsStringList())
-                .build();
+    private static final SecureRandom random = new SecureRandom();
+
+    private final AuthTokenCodec authTokenCodec;
 
-        Date issuedAt = new Date();
-        Date expiration = new Date(issuedAt.getTime() + 1000 * expireSeconds);
+    public String genToken(Member member, long expireSeconds) {
+        return genToken(member.getId(), member.getUsername(), member.getAuthoritiesAsStringList(), expireSeconds);
+    }
 
-        return Jwts.builder()
-                .setClaims(claims)
-                .setIssuedAt(issuedAt)
-                .setExpiration(expiration)
-                .signWith(SignatureAlgorithm.HS256, AppConfig.getJwtSecretKey())
-                .compact();
+    public String genToken(long id, String username, List<String> authorities, long expireSeconds) {
+        return authTokenCodec.encode(
+                Map.of(
+                        "id", id,
+                        "username", username,
+                        "authorities", authorities
+                ),
+                expireSeconds
+        );
     }
 
     public String genAccessToken(Member member) {
         return genToken(member, AppConfig.getAccessTokenExpirationSec());
     }
 
+    public String genAccessToken(long id, String username, List<String> authorities) {
+        return genToken(id, username, authorities, AppConfig.getAccessTokenExpirationSec());
+    }
+
     public Map<String, Object> getDataFrom(String token) {
-        Claims payload = Jwts.parser()
-                .setSigningKey(AppConfig.getJwtSecretKey())
-                .build()
-                .parseClaimsJws(token)
-                .getPayload();
+        Claims payload = authTokenCodec.decode(token);
 
         return Map.of(
                 "id", payload.get("id", Integer.class),
                 "username", payload.get("username", String.class),
-                "authorities", payload.get("authorities", List.class)
+                "authorities", payload.get("authorities", List.class),
+                "exp", payload.getExpiration().getTime()
         );
     }
 
-    public boolean validateToken(String token) {
+    // 검증과 파싱을 한번에 한다, 유효하지 않은 토큰이면 empty
+    public Optional<Map<String, Object>> findDataFrom(String token) {
         try {
-            Jwts.parser().setSigningKey(AppConfig.getJwtSecretKey()).build().parseClaimsJws(token);
-            return true;
+            return Optional.of(getDataFrom(token));
         } catch (Exception e) {
-            return false;
+            return Optional.empty();
         }
     }
 
+    public boolean validateToken(String token) {
+        return findDataFrom(token).isPresent();
+    }
+
     public String genRefreshToken() {
-        SecureRandom random = new SecureRandom();
         byte[] bytes = new byte[10];
         random.nextBytes(bytes);
         return Base64.getUrlEncoder().encodeToString(bytes);
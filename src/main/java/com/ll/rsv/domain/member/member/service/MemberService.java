@@ -23,6 +23,8 @@ public class MemberService {
     private final MemberRepository memberRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthTokenService authTokenService;
+    private final AccessTokenUserCache accessTokenUserCache;
+    private final RefreshTokenCache refreshTokenCache;
 
     @Transactional
     public RsData<Member> join(String username, String password) {
@@ -114,8 +116,25 @@ public class MemberService {
     }
 
     public SecurityUser getUserFromAccessToken(String accessToken) {
-        Map<String, Object> payloadBody = authTokenService.getDataFrom(accessToken);
+        return toSecurityUser(authTokenService.getDataFrom(accessToken));
+    }
+
+    // 유효하지 않거나 만료된 토큰이면 empty
+    public Optional<SecurityUser> findUserFromAccessToken(String accessToken) {
+        return Optional.ofNullable(
+                accessTokenUserCache.get(
+                        accessToken,
+                        token -> authTokenService.findDataFrom(token)
+                                .map(payloadBody -> new AccessTokenUserCache.Entry(
+                                        toSecurityUser(payloadBody),
+                                        (long) payloadBody.get("exp")
+                                ))
+                                .orElse(null)
+                )
+        );
+    }
 
+    private SecurityUser toSecurityUser(Map<String, Object> payloadBody) {
         long id = (int) payloadBody.get("id");
         String username = (String) payloadBody.get("username");
         List<String> authorities = (List<String>) payloadBody.get("authorities");
@@ -133,10 +152,23 @@ public class MemberService {
     }
 
     public RsData<String> refreshAccessToken(String refreshToken) {
-        Member member = memberRepository.findByRefreshToken(refreshToken).orElseThrow(() -> new GlobalException("400-1", "존재하지 않는 리프레시 토큰입니다."));
+        // 동시에 들어온 같은 리프레시 토큰의 갱신 요청은 회원 조회와 토큰 발급을 한번만 하고 결과를 공유한다.
+        String accessToken = refreshTokenCache.getAccessToken(refreshToken, token -> {
+            RefreshTokenCache.MemberSnapshot member = refreshTokenCache.getMember(token, this::findMemberSnapshotByRefreshToken);
 
-        String accessToken = authTokenService.genAccessToken(member);
+            return authTokenService.genAccessToken(member.id(), member.username(), member.authorities());
+        });
 
         return RsData.of("200-1", "토큰 갱신 성공", accessToken);
     }
+
+    private RefreshTokenCache.MemberSnapshot findMemberSnapshotByRefreshToken(String refreshToken) {
+        Member member = memberRepository.findByRefreshToken(refreshToken).orElseThrow(() -> new GlobalException("400-1", "존재하지 않는 리프레시 토큰입니다."));
+
+        return new RefreshTokenCache.MemberSnapshot(
+                member.getId(),
+                member.getUsername(),
+                member.getAuthoritiesAsStringList()
+        );
+    }
 }
@@ -0,0 +1,62 @@
+package com.ll.rsv.domain.member.member.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+// 엑세스 토큰이 만료되는 순간 한 페이지의 여러 요청이 동시에 같은 리프레시 토큰으로 갱신을 시도한다.
+// 같은 키에 대한 Caffeine 의 get 은 한번만 계산되고 나머지는 그 결과를 기다리므로, 회원 조회와 토큰 발급이 한번만 일어난다.
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenCache {
+    private final MeterRegistry meterRegistry;
+
+    @Value("${custom.refreshToken.accessTokenCacheSeconds}")
+    private long accessTokenCacheSeconds;
+
+    @Value("${custom.refreshToken.memberCacheSeconds}")
+    private long memberCacheSeconds;
+
+    // 리프레시 토큰 -> 새로 발급한 엑세스 토큰
+    private Cache<String, String> accessTokens;
+    // 리프레시 토큰 -> 토큰 발급에 필요한 회원 정보
+    private Cache<String, MemberSnapshot> members;
+
+    public record MemberSnapshot(long id, String username, List<String> authorities) {
+    }
+
+    @PostConstruct
+    public void init() {
+        accessTokens = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(accessTokenCacheSeconds))
+                .recordStats()
+                .build();
+
+        members = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(memberCacheSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, accessTokens, "refreshTokenAccessToken");
+        CaffeineCacheMetrics.monitor(meterRegistry, members, "refreshTokenMember");
+    }
+
+    public String getAccessToken(String refreshToken, Function<String, String> generator) {
+        return accessTokens.get(refreshToken, generator);
+    }
+
+    public MemberSnapshot getMember(String refreshToken, Function<String, MemberSnapshot> loader) {
+        return members.get(refreshToken, loader);
+    }
+}
@@ -3,22 +3,30 @@ package com.ll.rsv.domain.post.post.controller;
 import com.ll.rsv.domain.base.genFile.dto.GenFileDto;
 import com.ll.rsv.domain.base.genFile.entity.GenFile.GenFile;
 import com.ll.rsv.domain.base.genFile.service.GenFileService.GenFileService;
+import com.ll.rsv.domain.base.genFile.service.GenFileService.GenFileUploadService;
+import com.ll.rsv.domain.base.genFile.service.GenFileService.GenFileWriter;
 import com.ll.rsv.domain.member.member.entity.Member;
 import com.ll.rsv.domain.member.member.service.MemberService;
+import com.ll.rsv.domain.post.post.dto.AbsPostDto;
 import com.ll.rsv.domain.post.post.dto.PostDto;
 import com.ll.rsv.domain.post.post.dto.PostWithBodyDto;
 import com.ll.rsv.domain.post.post.entity.Post;
+import com.ll.rsv.domain.post.post.repository.PostListItem;
+import com.ll.rsv.domain.post.post.service.PostCounterService;
 import com.ll.rsv.domain.post.post.service.PostService;
 import com.ll.rsv.global.app.AppConfig;
 import com.ll.rsv.global.exceptions.GlobalException;
+import com.ll.rsv.global.jpa.entity.BaseEntity;
 import com.ll.rsv.global.rq.Rq;
 import com.ll.rsv.global.rsData.RsData;
+import com.ll.rsv.standard.base.CursorPageDto;
 import com.ll.rsv.standard.base.Empty;
 import com.ll.rsv.standard.base.KwTypeV1;
 import com.ll.rsv.standard.base.PageDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -26,15 +34,19 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.lang.NonNull;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.springframework.http.MediaType.*;
 
@@ -47,8 +59,11 @@ import static org.springframework.http.MediaType.*;
 @Transactional(readOnly = true)
 public class ApiV1PostController {
     private final PostService postService;
+    private final PostCounterService postCounterService;
     private final MemberService memberService;
     private final GenFileService genFileService;
+    private final GenFileWriter genFileWriter;
+    private final GenFileUploadService genFileUploadService;
     private final Rq rq;
 
 
@@ -77,19 +92,17 @@ public class ApiV1PostController {
     public RsData<GetPostsResponseBody> getPosts(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "") String kw,
-            @RequestParam(defaultValue = "ALL") KwTypeV1 kwType
+            @RequestParam(defaultValue = "ALL") KwTypeV1 kwType,
+            @RequestParam(defaultValue = "") List<String> include
     ) {
 
         List<Sort.Order> sorts = new ArrayList<>();
         sorts.add(Sort.Order.desc("id"));
         Pageable pageable = PageRequest.of(page - 1, AppConfig.getBasePageSize(), Sort.by(sorts));
-        Page<Post> itemPage = postService.findByKw(kwType, kw, null, true, true, pageable);
+        Page<PostListItem> itemPage = postService.findListItemsByKw(kwType, kw, null, true, true, pageable);
 
-        if (rq.isLogin()) {
-            postService.loadLikeMap(itemPage.getContent(), rq.getMember());
-        }
-
-        Page<PostDto> _itemPage = itemPage.map(this::postToDto);
+        Page<PostDto> _itemPage = itemPage.map(PostDto::new);
+        loadAdditionalInfo(_itemPage.getContent(), include);
 
         return RsData.of(
                 new GetPostsResponseBody(
@@ -107,18 +120,16 @@ public class ApiV1PostController {
     public RsData<GetMineResponseBody> getMine(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "") String kw,
-            @RequestParam(defaultValue = "ALL") KwTypeV1 kwType
+            @RequestParam(defaultValue = "ALL") KwTypeV1 kwType,
+            @RequestParam(defaultValue = "") List<String> include
     ) {
         List<Sort.Order> sorts = new ArrayList<>();
         sorts.add(Sort.Order.desc("id"));
         Pageable pageable = PageRequest.of(page - 1, AppConfig.getBasePageSize(), Sort.by(sorts));
-        Page<Post> itemPage = postService.findByKw(kwType, kw, rq.getMember(), null, null, pageable);
-
-        if (rq.isLogin()) {
-            postService.loadLikeMap(itemPage.getContent(), rq.getMember());
-        }
+        Page<PostListItem> itemPage = postService.findListItemsByKw(kwType, kw, rq.getMember(), null, null, pageable);
 
-        Page<PostDto> _itemPage = itemPage.map(this::postToDto);
+        Page<PostDto> _itemPage = itemPage.map(PostDto::new);
+        loadAdditionalInfo(_itemPage.getContent(), include);
 
         return RsData.of(
                 new GetMineResponseBody(
@@ -137,20 +148,18 @@ public class ApiV1PostController {
             @PathVariable long authorId,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "") String kw,
-            @RequestParam(defaultValue = "ALL") KwTypeV1 kwType
+            @RequestParam(defaultValue = "ALL") KwTypeV1 kwType,
+            @RequestParam(defaultValue = "") List<String> include
     ) {
         Member member = memberService.findById(authorId).orElseThrow(GlobalException.E404::new);
 
         List<Sort.Order> sorts = new ArrayList<>();
         sorts.add(Sort.Order.desc("id"));
         Pageable pageable = PageRequest.of(page - 1, AppConfig.getBasePageSize(), Sort.by(sorts));
-        Page<Post> itemPage = postService.findByKw(kwType, kw, member, null, null, pageable);
+        Page<PostListItem> itemPage = postService.findListItemsByKw(kwType, kw, member, null, null, pageable);
 
-        if (rq.isLogin()) {
-            postService.loadLikeMap(itemPage.getContent(), rq.getMember());
-        }
-
-        Page<PostDto> _itemPage = itemPage.map(this::postToDto);
+        Page<PostDto> _itemPage = itemPage.map(PostDto::new);
+        loadAdditionalInfo(_itemPage.getContent(), include);
 
         return RsData.of(
                 new GetByAuthorResponseBody(
@@ -160,20 +169,87 @@ public class ApiV1PostController {
     }
 
 
+    public record GetPostsByCursorResponseBody(@NonNull CursorPageDto<PostDto> itemPage) {
+    }
+
+    @GetMapping(value = "/cursor", consumes = ALL_VALUE)
+    @Operation(summary = "글 다건조회, 커서 방식")
+    public RsData<GetPostsByCursorResponseBody> getPostsByCursor(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "") String kw,
+            @RequestParam(defaultValue = "ALL") KwTypeV1 kwType,
+            @RequestParam(defaultValue = "") List<String> include
+    ) {
+        Slice<PostListItem> itemSlice = postService.findListItemsByKwAfter(kwType, kw, null, true, true, after, AppConfig.getBasePageSize());
+
+        return RsData.of(
+                new GetPostsByCursorResponseBody(
+                        postSliceToCursorPageDto(itemSlice, include)
+                )
+        );
+    }
+
+
+    public record GetMineByCursorResponseBody(@NonNull CursorPageDto<PostDto> itemPage) {
+    }
+
+    @GetMapping(value = "/mine/cursor", consumes = ALL_VALUE)
+    @Operation(summary = "내글 다건조회, 커서 방식")
+    public RsData<GetMineByCursorResponseBody> getMineByCursor(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "") String kw,
+            @RequestParam(defaultValue = "ALL") KwTypeV1 kwType,
+            @RequestParam(defaultValue = "") List<String> include
+    ) {
+        Slice<PostListItem> itemSlice = postService.findListItemsByKwAfter(kwType, kw, rq.getMember(), null, null, after, AppConfig.getBasePageSize());
+
+        return RsData.of(
+                new GetMineByCursorResponseBody(
+                        postSliceToCursorPageDto(itemSlice, include)
+                )
+        );
+    }
+
+
+    public record GetByAuthorByCursorResponseBody(@NonNull CursorPageDto<PostDto> itemPage) {
+    }
+
+    @GetMapping(value = "/byAuthor/{authorId}/cursor", consumes = ALL_VALUE)
+    @Operation(summary = "특정 회원의글 다건조회, 커서 방식")
+    public RsData<GetByAuthorByCursorResponseBody> getByAuthorByCursor(
+            @PathVariable long authorId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "") String kw,
+            @RequestParam(defaultValue = "ALL") KwTypeV1 kwType,
+            @RequestParam(defaultValue = "") List<String> include
+    ) {
+        Member member = memberService.findById(authorId).orElseThrow(GlobalException.E404::new);
+
+        Slice<PostListItem> itemSlice = postService.findListItemsByKwAfter(kwType, kw, member, null, null, after, AppConfig.getBasePageSize());
+
+        return RsData.of(
+                new GetByAuthorByCursorResponseBody(
+                        postSliceToCursorPageDto(itemSlice, include)
+                )
+        );
+    }
+
+
     public record GetPostResponseBody(@NonNull PostWithBodyDto item) {
     }
 
     @GetMapping(value = "/{id}", consumes = ALL_VALUE)
     @Operation(summary = "글 단건조회")
     public RsData<GetPostResponseBody> getPost(
-            @PathVariable long id
+            @PathVariable long id,
+            @RequestParam(defaultValue = "") List<String> include
     ) {
         Post post = postService.findById(id).orElseThrow(GlobalException.E404::new);
 
         if (!postService.canRead(rq.getMember(), post))
-            throw new GlobalException("403-1", "권한이 없습니다.");
+            throw new GlobalException.E403();
 
-        PostWithBodyDto dto = postToWithBodyDto(post);
+        PostWithBodyDto dto = postToWithBodyDto(post, include);
 
         return RsData.of(
                 new GetPostResponseBody(dto)
@@ -203,7 +279,7 @@ public class ApiV1PostController {
         Post post = postService.findById(id).orElseThrow(GlobalException.E404::new);
 
         if (!postService.canEdit(rq.getMember(), post))
-            throw new GlobalException("403-1", "권한이 없습니다.");
+            throw new GlobalException.E403();
 
         postService.edit(post, requestBody.title, requestBody.tagContents, requestBody.body, requestBody.published, requestBody.listed);
 
@@ -225,7 +301,7 @@ public class ApiV1PostController {
         Post post = postService.findById(id).orElseThrow(GlobalException.E404::new);
 
         if (!postService.canEdit(rq.getMember(), post))
-            throw new GlobalException("403-1", "권한이 없습니다.");
+            throw new GlobalException.E403();
 
         genFileService.save(post, "common", "mainVideo", fileNo, file);
 
@@ -233,6 +309,151 @@ public class ApiV1PostController {
     }
 
 
+    @PutMapping(value = "/{id}/mainVideo/{fileNo}/stream", consumes = APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "글의 비디오 업로드, 요청 본문을 그대로 저장")
+    // 업로드 받는 동안 DB 커넥션을 붙잡고 있지 않도록
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RsData<Empty> uploadVideoStream(
+            @PathVariable long id,
+            @PathVariable int fileNo,
+            @RequestParam String fileName,
+            HttpServletRequest request
+    ) throws IOException {
+        Post post = postService.findById(id).orElseThrow(GlobalException.E404::new);
+
+        if (!postService.canEdit(rq.getMember(), post))
+            throw new GlobalException.E403();
+
+        GenFileWriter.WrittenFile writtenFile = genFileWriter.write(fileName, request.getInputStream());
+
+        try {
+            genFileService.save(post, "common", "mainVideo", fileNo, fileName, writtenFile);
+        } catch (RuntimeException e) {
+            genFileService.deleteOnDiskIfUnreferenced(writtenFile);
+            throw e;
+        }
+
+        return RsData.OK;
+    }
+
+
+    public record InitMainVideoUploadRequestBody(@NotBlank String fileName, @NotNull Long fileSize) {
+    }
+
+    public record InitMainVideoUploadResponseBody(@NonNull String uploadId, long chunkSize, int chunksCount) {
+    }
+
+    @PostMapping("/{id}/mainVideo/{fileNo}/uploads")
+    @Operation(summary = "글의 비디오 이어올리기 시작")
+    public RsData<InitMainVideoUploadResponseBody> initMainVideoUpload(
+            @PathVariable long id,
+            @PathVariable int fileNo,
+            @Valid @RequestBody InitMainVideoUploadRequestBody body
+    ) {
+        Post post = postService.findById(id).orElseThrow(GlobalException.E404::new);
+
+        if (!postService.canEdit(rq.getMember(), post))
+            throw new GlobalException.E403();
+
+        GenFileUploadService.UploadSession session = genFileUploadService.init(
+                rq.getMember().getId(),
+                getMainVideoUploadOwnerKey(id, fileNo),
+                body.fileName,
+                body.fileSize
+        );
+
+        return RsData.of(
+                new InitMainVideoUploadResponseBody(
+                        session.getId(),
+                        session.getChunkSize(),
+                        session.getChunksCount()
+                )
+        );
+    }
+
+
+    @PutMapping(value = "/{id}/mainVideo/{fileNo}/uploads/{uploadId}", consumes = APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "글의 비디오 이어올리기, offset 위치의 청크 업로드")
+    // 청크를 받는 동안 DB 커넥션을 붙잡고 있지 않도록
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RsData<Empty> uploadMainVideoChunk(
+            @PathVariable long id,
+            @PathVariable int fileNo,
+            @PathVariable String uploadId,
+            @RequestParam long offset,
+            @RequestHeader("X-Chunk-Sha256") String chunkSha256,
+            HttpServletRequest request
+    ) throws IOException {
+        // 세션을 시작할 때 권한을 확인했으므로, 청크마다 글을 조회하지 않는다.
+        GenFileUploadService.UploadSession session = genFileUploadService.get(uploadId, getMainVideoUploadOwnerKey(id, fileNo));
+
+        genFileUploadService.writeChunk(session, offset, chunkSha256, request.getInputStream());
+
+        return RsData.OK;
+    }
+
+
+    public record GetMainVideoUploadResponseBody(
+            long fileSize,
+            long chunkSize,
+            int chunksCount,
+            @NonNull List<Integer> receivedChunkIndexes
+    ) {
+    }
+
+    @GetMapping(value = "/{id}/mainVideo/{fileNo}/uploads/{uploadId}", consumes = ALL_VALUE)
+    @Operation(summary = "글의 비디오 이어올리기 상태, 받은 청크 목록")
+    public RsData<GetMainVideoUploadResponseBody> getMainVideoUpload(
+            @PathVariable long id,
+            @PathVariable int fileNo,
+            @PathVariable String uploadId
+    ) {
+        GenFileUploadService.UploadSession session = genFileUploadService.get(uploadId, getMainVideoUploadOwnerKey(id, fileNo));
+
+        return RsData.of(
+                new GetMainVideoUploadResponseBody(
+                        session.getFileSize(),
+                        session.getChunkSize(),
+                        session.getChunksCount(),
+                        session.getReceivedChunkIndexes()
+                )
+        );
+    }
+
+
+    @PostMapping(value = "/{id}/mainVideo/{fileNo}/uploads/{uploadId}/complete", consumes = ALL_VALUE)
+    @Operation(summary = "글의 비디오 이어올리기 완료")
+    // 전체 파일의 해시를 구하는 동안 DB 커넥션을 붙잡고 있지 않도록
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RsData<Empty> completeMainVideoUpload(
+            @PathVariable long id,
+            @PathVariable int fileNo,
+            @PathVariable String uploadId
+    ) {
+        GenFileUploadService.UploadSession session = genFileUploadService.get(uploadId, getMainVideoUploadOwnerKey(id, fileNo));
+
+        Post post = postService.findById(id).orElseThrow(GlobalException.E404::new);
+
+        if (!postService.canEdit(rq.getMember(), post))
+            throw new GlobalException.E403();
+
+        GenFileWriter.WrittenFile writtenFile = genFileUploadService.complete(session);
+
+        try {
+            genFileService.save(post, "common", "mainVideo", fileNo, session.getOriginFileName(), writtenFile);
+        } catch (RuntimeException e) {
+            genFileService.deleteOnDiskIfUnreferenced(writtenFile);
+            throw e;
+        }
+
+        return RsData.OK;
+    }
+
+    private String getMainVideoUploadOwnerKey(long id, int fileNo) {
+        return "%d/post/%d/mainVideo/%d".formatted(rq.getMember().getId(), id, fileNo);
+    }
+
+
     @DeleteMapping(value = "/{id}/mainVideo/{fileNo}", consumes = ALL_VALUE)
     @Operation(summary = "글의 비디오 삭제")
     @Transactional
@@ -243,7 +464,7 @@ public class ApiV1PostController {
         Post post = postService.findById(id).orElseThrow(GlobalException.E404::new);
 
         if (!postService.canEdit(rq.getMember(), post))
-            throw new GlobalException("403-1", "권한이 없습니다.");
+            throw new GlobalException.E403();
 
         genFileService.delete(post, "common", "mainVideo", fileNo);
 
@@ -264,7 +485,7 @@ public class ApiV1PostController {
         Post post = postService.findById(id).orElseThrow(GlobalException.E404::new);
 
         if (!postService.canEdit(rq.getMember(), post))
-            throw new GlobalException("403-1", "권한이 없습니다.");
+            throw new GlobalException.E403();
 
         postService.editBody(post, requestBody.body);
 
@@ -290,10 +511,10 @@ public class ApiV1PostController {
         Post post = postService.findById(id).orElseThrow(GlobalException.E404::new);
 
         if (!postService.canRead(rq.getMember(), post))
-            throw new GlobalException("403-1", "권한이 없습니다.");
+            throw new GlobalException.E403();
 
         if (post.getModifyDate().isBefore(lastModifyDate) || post.getModifyDate().equals(lastModifyDate))
-            throw new GlobalException("400-1", "변경사항이 없습니다.");
+            throw new GlobalException.E400NotModified();
 
         return RsData.of(
                 "새 본문을 불러옵니다.",
@@ -319,7 +540,7 @@ public class ApiV1PostController {
         Post post = postService.findById(id).orElseThrow(GlobalException.E404::new);
 
         if (!postService.canRead(rq.getMember(), post))
-            throw new GlobalException("403-1", "권한이 없습니다.");
+            throw new GlobalException.E403();
 
         List<GenFile> files = genFileService.findByRel(post);
 
@@ -343,7 +564,7 @@ public class ApiV1PostController {
         Post post = postService.findById(id).orElseThrow(GlobalException.E404::new);
 
         if (!postService.canDelete(rq.getMember(), post))
-            throw new GlobalException("403-1", "권한이 없습니다.");
+            throw new GlobalException.E403();
 
         postService.delete(post);
 
@@ -365,7 +586,7 @@ public class ApiV1PostController {
         Post post = postService.findById(id).orElseThrow(GlobalException.E404::new);
 
         if (!postService.canLike(rq.getMember(), post))
-            throw new GlobalException("403-1", "권한이 없습니다.");
+            throw new GlobalException.E403();
 
         postService.like(rq.getMember(), post);
 
@@ -390,7 +611,7 @@ public class ApiV1PostController {
         Post post = postService.findById(id).orElseThrow(GlobalException.E404::new);
 
         if (!postService.canCancelLike(rq.getMember(), post))
-            throw new GlobalException("403-1", "권한이 없습니다.");
+            throw new GlobalException.E403();
 
         postService.cancelLike(rq.getMember(), post);
 
@@ -402,27 +623,59 @@ public class ApiV1PostController {
         );
     }
 
+    private CursorPageDto<PostDto> postSliceToCursorPageDto(Slice<PostListItem> itemSlice, List<String> include) {
+        Slice<PostDto> _itemSlice = itemSlice.map(PostDto::new);
+        loadAdditionalInfo(_itemSlice.getContent(), include);
+
+        List<PostDto> items = _itemSlice.getContent();
+        Long nextCursor = items.isEmpty() ? null : items.get(items.size() - 1).getId();
+
+        return new CursorPageDto<>(_itemSlice, nextCursor);
+    }
+
     private PostDto postToDto(Post post) {
         PostDto dto = new PostDto(post);
 
-        loadAdditionalInfo(dto, post);
+        loadAdditionalInfo(List.of(dto));
 
         return dto;
     }
 
     private PostWithBodyDto postToWithBodyDto(Post post) {
+        return postToWithBodyDto(post, List.of());
+    }
+
+    private PostWithBodyDto postToWithBodyDto(Post post, List<String> include) {
         PostWithBodyDto dto = new PostWithBodyDto(post);
 
-        loadAdditionalInfo(dto, post);
+        loadAdditionalInfo(List.of(dto), include);
 
         return dto;
     }
 
-    private void loadAdditionalInfo(PostDto dto, Post post) {
-        dto.setActorCanRead(postService.canRead(rq.getMember(), post));
-        dto.setActorCanEdit(postService.canEdit(rq.getMember(), post));
-        dto.setActorCanDelete(postService.canDelete(rq.getMember(), post));
-        dto.setActorCanLike(postService.canLike(rq.getMember(), post));
-        dto.setActorCanCancelLike(postService.canCancelLike(rq.getMember(), post));
+    private void loadAdditionalInfo(List<? extends AbsPostDto> dtos) {
+        loadAdditionalInfo(dtos, List.of());
+    }
+
+    private void loadAdditionalInfo(List<? extends AbsPostDto> dtos, List<String> include) {
+        postService.loadActorCapabilities(rq.getMember(), dtos);
+        postCounterService.loadUnflushedCounts(dtos);
+
+        if (include.contains("files")) loadFiles(dtos);
+    }
+
+    // 페이지의 글들의 파일을 한번에 조회한다.
+    private void loadFiles(List<? extends AbsPostDto> dtos) {
+        Map<Long, List<GenFile>> filesByPostId = genFileService.findByRelIn(
+                BaseEntity.getModelName(Post.class),
+                dtos.stream().map(AbsPostDto::getId).toList()
+        );
+
+        dtos.forEach(dto -> dto.setFiles(
+                filesByPostId.get(dto.getId())
+                        .stream()
+                        .map(GenFileDto::new)
+                        .toList()
+        ));
     }
 }
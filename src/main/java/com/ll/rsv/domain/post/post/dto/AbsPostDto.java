@@ -1,6 +1,8 @@
 package com.ll.rsv.domain.post.post.dto;
 
+import com.ll.rsv.domain.base.genFile.dto.GenFileDto;
 import com.ll.rsv.domain.post.post.entity.Post;
+import com.ll.rsv.domain.post.post.repository.PostListItem;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.lang.NonNull;
@@ -46,6 +48,10 @@ public abstract class AbsPostDto {
     @Setter
     private Boolean actorCanCancelLike;
 
+    // ?include=files 로 요청한 경우에만
+    @Setter
+    private List<GenFileDto> files;
+
     public AbsPostDto(Post post) {
         this.id = post.getId();
         this.createDate = post.getCreateDate();
@@ -60,4 +66,24 @@ public abstract class AbsPostDto {
         this.commentsCount = post.getCommentsCount();
         this.tagContents = post.getTagContents();
     }
+
+    public AbsPostDto(PostListItem item) {
+        this.id = item.id();
+        this.createDate = item.createDate();
+        this.modifyDate = item.modifyDate();
+        this.authorId = item.authorId();
+        this.authorName = item.authorNickname();
+        this.authorProfileImgUrl = item.authorProfileImgUrl();
+        this.title = item.title();
+        this.published = item.published();
+        this.listed = item.listed();
+        this.likesCount = item.likesCount();
+        this.commentsCount = item.commentsCount();
+        this.tagContents = item.tagContents();
+    }
+
+    public void addUnflushedCounts(long likesCountDelta, long commentsCountDelta) {
+        this.likesCount += likesCountDelta;
+        this.commentsCount += commentsCountDelta;
+    }
 }
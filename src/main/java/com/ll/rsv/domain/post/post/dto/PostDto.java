@@ -1,6 +1,7 @@
 package com.ll.rsv.domain.post.post.dto;
 
 import com.ll.rsv.domain.post.post.entity.Post;
+import com.ll.rsv.domain.post.post.repository.PostListItem;
 import lombok.Getter;
 
 @Getter
@@ -8,4 +9,8 @@ public class PostDto extends AbsPostDto {
     public PostDto(Post post) {
         super(post);
     }
+
+    public PostDto(PostListItem item) {
+        super(item);
+    }
 }
@@ -31,16 +31,19 @@ public class Post extends BaseTime {
     @ToString.Exclude
     @Builder.Default
     private List<PostLike> likes = new ArrayList<>();
-    @Column(columnDefinition = "BIGINT default 0")
+    // 동시에 추천해도 유실되지 않도록 PostCounterService 를 통해서만 증감한다, 엔티티의 값은 응답용
+    @Column(columnDefinition = "BIGINT default 0", updatable = false)
     @Setter(PROTECTED)
     private long likesCount;
 
+    // 글이 삭제될 때 같이 삭제하기 위한 것, 댓글을 쓰고 지울 때는 불러오지 않도록 PostCommentService 를 통한다.
     @OneToMany(mappedBy = "post", cascade = ALL, orphanRemoval = true)
     @ToString.Exclude
     @Builder.Default
     @OrderBy("id DESC")
     private List<PostComment> comments = new ArrayList<>();
-    @Column(columnDefinition = "BIGINT default 0")
+    // likesCount 와 마찬가지로 PostCounterService 를 통해서만 증감한다.
+    @Column(columnDefinition = "BIGINT default 0", updatable = false)
     @Setter(PROTECTED)
     private long commentsCount;
 
@@ -66,69 +69,19 @@ public class Post extends BaseTime {
         likesCount++;
     }
 
-    private void decreaseLikesCount() {
+    public void decreaseLikesCount() {
         likesCount--;
     }
 
-    public void addLike(Member member) {
-        likes.add(PostLike.builder()
-                .post(this)
-                .member(member)
-                .build());
-
-        increaseLikesCount();
-    }
-
-    public void deleteLike(Member member) {
-        likes.removeIf(
-                it -> it.getMember().equals(member)
-        );
-
-        decreaseLikesCount();
-    }
-
-    public boolean hasLike(Member actor) {
-        return likes
-                .stream()
-                .anyMatch(it -> it.getMember().equals(actor));
-    }
-
 
     public void increaseCommentsCount() {
         commentsCount++;
     }
 
-    private void decreaseCommentsCount() {
+    public void decreaseCommentsCount() {
         commentsCount--;
     }
 
-    public PostComment addComment(Member author, String body) {
-        return addComment(author, body, true);
-    }
-
-    public PostComment addComment(Member author, String body, boolean published) {
-        PostComment postComment = PostComment.builder()
-                .post(this)
-                .author(author)
-                .body(body)
-                .published(published)
-                .build();
-
-        comments.add(postComment);
-
-        if (published) {
-            increaseCommentsCount();
-        }
-
-        return postComment;
-    }
-
-    public void deleteComment(PostComment postComment) {
-        comments.remove(postComment);
-
-        decreaseCommentsCount();
-    }
-
     public void addTag(String content) {
         tags.add(
                 PostTag.builder()
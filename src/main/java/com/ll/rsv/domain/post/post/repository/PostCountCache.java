@@ -0,0 +1,133 @@
+package com.ll.rsv.domain.post.post.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ll.rsv.domain.member.member.entity.Member;
+import com.ll.rsv.global.app.AppConfig;
+import com.ll.rsv.standard.base.KwTypeV1;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+// findByKw 의 전체 개수(count 쿼리) 결과를 필터 조건별로 캐시한다.
+@Component
+@RequiredArgsConstructor
+public class PostCountCache {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${custom.post.count.cacheSeconds}")
+    private long cacheSeconds;
+
+    @Value("${custom.post.count.estimate.enabled}")
+    private boolean estimateEnabled;
+
+    @Value("${custom.post.count.estimate.threshold}")
+    private long estimateThreshold;
+
+    private Cache<Key, Long> cache;
+    private Boolean postgreSql;
+
+    public record Key(KwTypeV1 kwType, String kw, Long authorId, Boolean published, Boolean listed) {
+        public static Key of(KwTypeV1 kwType, String kw, Member author, Boolean published, Boolean listed) {
+            boolean hasKw = kw != null && !kw.isBlank();
+
+            return new Key(
+                    hasKw ? kwType : KwTypeV1.ALL,
+                    hasKw ? kw.toLowerCase(Locale.ROOT) : "",
+                    author == null ? null : author.getId(),
+                    published,
+                    listed
+            );
+        }
+
+        public boolean hasKw() {
+            return !kw.isEmpty();
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(cacheSeconds))
+                .build();
+    }
+
+    public long get(Key key, LongSupplier counter) {
+        return cache.get(key, k -> count(k, counter));
+    }
+
+    private long count(Key key, LongSupplier counter) {
+        if (canEstimate(key)) {
+            long estimatedCount = estimate(key);
+
+            // 추정치가 작으면 정확한 개수를 구해도 부담이 없다.
+            if (estimatedCount >= estimateThreshold) return estimatedCount;
+        }
+
+        return counter.getAsLong();
+    }
+
+    private boolean canEstimate(Key key) {
+        return estimateEnabled && !key.hasKw() && key.authorId() == null && isPostgreSql();
+    }
+
+    // PostgreSQL 의 통계정보로 구한 실행계획 상의 예상 행 수
+    @SneakyThrows
+    private long estimate(Key key) {
+        StringBuilder sql = new StringBuilder("EXPLAIN (FORMAT JSON) SELECT 1 FROM post WHERE 1 = 1");
+
+        if (key.published() != null) sql.append(" AND published = ").append(key.published());
+        if (key.listed() != null) sql.append(" AND listed = ").append(key.listed());
+
+        String plan = jdbcTemplate.queryForObject(sql.toString(), String.class);
+        JsonNode planNode = AppConfig.getObjectMapper().readTree(plan);
+
+        return planNode.get(0).get("Plan").get("Plan Rows").asLong();
+    }
+
+    private boolean isPostgreSql() {
+        if (postgreSql == null) {
+            postgreSql = jdbcTemplate.execute(
+                    (ConnectionCallback<Boolean>) connection -> connection.getMetaData().getDatabaseProductName().equals("PostgreSQL")
+            );
+        }
+
+        return postgreSql;
+    }
+
+    // 글 작성, 공개여부 변경, 삭제 등 개수가 바뀌는 모든 경우
+    public void invalidateAll() {
+        runNowAndAfterCommit(() -> cache.invalidateAll());
+    }
+
+    // 본문만 바뀐 경우에는 검색어가 있는 개수만 바뀔 수 있다.
+    public void invalidateKwCounts() {
+        runNowAndAfterCommit(() -> cache.asMap().keySet().removeIf(Key::hasKw));
+    }
+
+    // 커밋 전에 다른 요청이 옛날 개수를 다시 캐시할 수 있으므로 커밋 후에 한번 더 지운다.
+    private void runNowAndAfterCommit(Runnable runnable) {
+        runnable.run();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package com.ll.rsv.domain.post.post.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 글 목록 전용 조회 결과, 작성자 정보와 태그를 엔티티 로딩 없이 담는다.
+public record PostListItem(
+        long id,
+        LocalDateTime createDate,
+        LocalDateTime modifyDate,
+        long authorId,
+        String authorNickname,
+        String authorProfileImgUrl,
+        String title,
+        boolean published,
+        boolean listed,
+        long likesCount,
+        long commentsCount,
+        List<String> tagContents
+) {
+}
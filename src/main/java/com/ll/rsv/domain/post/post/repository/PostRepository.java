@@ -3,6 +3,8 @@ package com.ll.rsv.domain.post.post.repository;
 import com.ll.rsv.domain.member.member.entity.Member;
 import com.ll.rsv.domain.post.post.entity.Post;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,4 +13,12 @@ public interface PostRepository extends JpaRepository<Post, Long>, PostRepositor
     List<Post> findByPublishedOrderByIdDesc(boolean published);
 
     Optional<Post> findTop1ByAuthorAndPublishedAndTitleOrderByIdDesc(Member author, boolean published, String title);
+
+    @Modifying
+    @Query("update Post p set p.likesCount = p.likesCount + :delta where p.id = :id")
+    int increaseLikesCount(long id, long delta);
+
+    @Modifying
+    @Query("update Post p set p.commentsCount = p.commentsCount + :delta where p.id = :id")
+    int increaseCommentsCount(long id, long delta);
 }
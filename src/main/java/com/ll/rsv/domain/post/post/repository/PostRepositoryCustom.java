@@ -5,7 +5,14 @@ import com.ll.rsv.domain.post.post.entity.Post;
 import com.ll.rsv.standard.base.KwTypeV1;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface PostRepositoryCustom {
     Page<Post> findByKw(KwTypeV1 kwType, String kw, Member author, Boolean published, Boolean listed, Pageable pageable);
+
+    Page<PostListItem> findListItemsByKw(KwTypeV1 kwType, String kw, Member author, Boolean published, Boolean listed, Pageable pageable);
+
+    void deleteWithAssociations(Post post);
+
+    Slice<PostListItem> findListItemsByKwAfter(KwTypeV1 kwType, String kw, Member author, Boolean published, Boolean listed, Long after, int size);
 }
@@ -2,27 +2,130 @@ package com.ll.rsv.domain.post.post.repository;
 
 import com.ll.rsv.domain.member.member.entity.Member;
 import com.ll.rsv.domain.post.post.entity.Post;
+import com.ll.rsv.domain.post.post.entity.QPost;
+import com.ll.rsv.domain.post.postSearch.service.PostSearchEngine;
 import com.ll.rsv.standard.base.KwTypeV1;
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.Tuple;
 import com.querydsl.core.types.Order;
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.support.PageableExecutionUtils;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.ll.rsv.domain.member.member.entity.QMember.member;
 import static com.ll.rsv.domain.post.post.entity.QPost.post;
+import static com.ll.rsv.domain.post.post.entity.QPostDetail.postDetail;
+import static com.ll.rsv.domain.post.postComment.entity.QPostComment.postComment;
+import static com.ll.rsv.domain.post.postLike.entity.QPostLike.postLike;
+import static com.ll.rsv.domain.post.postTag.entity.QPostTag.postTag;
 
 @RequiredArgsConstructor
 public class PostRepositoryImpl implements PostRepositoryCustom {
     private final JPAQueryFactory jpaQueryFactory;
+    private final PostSearchEngine postSearchEngine;
+    private final PostCountCache postCountCache;
+    private final EntityManager entityManager;
 
     @Override
     public Page<Post> findByKw(KwTypeV1 kwType, String kw, Member author, Boolean published, Boolean listed, Pageable pageable) {
+        BooleanBuilder builder = createFilter(kwType, kw, author, published, listed);
+
+        JPAQuery<Post> postsQuery = createPostsQuery(builder);
+        applySorting(pageable, postsQuery);
+
+        postsQuery.offset(pageable.getOffset()).limit(pageable.getPageSize());
+
+        JPAQuery<Long> totalQuery = createTotalQuery(builder);
+        PostCountCache.Key countKey = PostCountCache.Key.of(kwType, kw, author, published, listed);
+
+        return PageableExecutionUtils.getPage(
+                postsQuery.fetch(),
+                pageable,
+                () -> postCountCache.get(countKey, totalQuery::fetchOne)
+        );
+    }
+
+    // 목록 화면용, 작성자는 조인해서 같이 가져오고 태그는 페이지당 1번의 쿼리로 가져온다.
+    @Override
+    public Page<PostListItem> findListItemsByKw(KwTypeV1 kwType, String kw, Member author, Boolean published, Boolean listed, Pageable pageable) {
+        BooleanBuilder builder = createFilter(kwType, kw, author, published, listed);
+
+        JPAQuery<Tuple> rowsQuery = createListItemRowsQuery(builder);
+        applySorting(pageable, rowsQuery);
+
+        rowsQuery.offset(pageable.getOffset()).limit(pageable.getPageSize());
+
+        JPAQuery<Long> totalQuery = createTotalQuery(builder);
+        PostCountCache.Key countKey = PostCountCache.Key.of(kwType, kw, author, published, listed);
+
+        return PageableExecutionUtils.getPage(
+                toListItems(rowsQuery.fetch()),
+                pageable,
+                () -> postCountCache.get(countKey, totalQuery::fetchOne)
+        );
+    }
+
+    // offset 대신 마지막으로 본 글의 id 를 기준으로 다음 글들을 가져온다, 전체 개수는 구하지 않는다.
+    @Override
+    public Slice<PostListItem> findListItemsByKwAfter(KwTypeV1 kwType, String kw, Member author, Boolean published, Boolean listed, Long after, int size) {
+        BooleanBuilder builder = createFilter(kwType, kw, author, published, listed);
+
+        if (after != null) {
+            builder.and(post.id.lt(after));
+        }
+
+        // 다음 페이지가 있는지 알기 위해서 1개를 더 가져온다.
+        List<Tuple> rows = createListItemRowsQuery(builder)
+                .orderBy(post.id.desc())
+                .limit(size + 1)
+                .fetch();
+
+        boolean hasNext = rows.size() > size;
+
+        if (hasNext) {
+            rows = rows.subList(0, size);
+        }
+
+        return new SliceImpl<>(toListItems(rows), PageRequest.of(0, size), hasNext);
+    }
+
+    // cascade 로 지우면 좋아요, 태그, 댓글을 모두 불러와서 한 행씩 지운다.
+    // 참조하는 쪽부터 조건으로 한번에 지운다.
+    @Override
+    public void deleteWithAssociations(Post post) {
+        long postId = post.getId();
+
+        jpaQueryFactory.delete(postLike).where(postLike.id.post.id.eq(postId)).execute();
+        jpaQueryFactory.delete(postTag).where(postTag.id.post.id.eq(postId)).execute();
+
+        // 댓글끼리 서로 참조하므로 부모 참조를 먼저 끊는다.
+        jpaQueryFactory.update(postComment).setNull(postComment.parentComment).where(postComment.post.id.eq(postId)).execute();
+        jpaQueryFactory.delete(postComment).where(postComment.post.id.eq(postId)).execute();
+
+        // 글과 본문도 서로 참조한다.
+        jpaQueryFactory.update(QPost.post).setNull(QPost.post.detailBody).where(QPost.post.id.eq(postId)).execute();
+        jpaQueryFactory.delete(postDetail).where(postDetail.post.id.eq(postId)).execute();
+        jpaQueryFactory.delete(QPost.post).where(QPost.post.id.eq(postId)).execute();
+
+        // 이미 지워졌으므로, 불러와져 있던 연관 엔티티들과 함께 영속성 컨텍스트에서 뗀다.
+        entityManager.detach(post);
+    }
+
+    private BooleanBuilder createFilter(KwTypeV1 kwType, String kw, Member author, Boolean published, Boolean listed) {
         BooleanBuilder builder = new BooleanBuilder();
 
         if (author != null) {
@@ -41,27 +144,11 @@ public class PostRepositoryImpl implements PostRepositoryCustom {
             applyKeywordFilter(kwType, kw, builder);
         }
 
-        JPAQuery<Post> postsQuery = createPostsQuery(builder);
-        applySorting(pageable, postsQuery);
-
-        postsQuery.offset(pageable.getOffset()).limit(pageable.getPageSize());
-
-        JPAQuery<Long> totalQuery = createTotalQuery(builder);
-
-        return PageableExecutionUtils.getPage(postsQuery.fetch(), pageable, totalQuery::fetchOne);
+        return builder;
     }
 
     private void applyKeywordFilter(KwTypeV1 kwType, String kw, BooleanBuilder builder) {
-        switch (kwType) {
-            case kwType.TITLE -> builder.and(post.title.containsIgnoreCase(kw));
-            case kwType.BODY -> builder.and(post.detailBody.val.containsIgnoreCase(kw));
-            case kwType.NAME -> builder.and(post.author.nickname.containsIgnoreCase(kw));
-            default -> builder.and(
-                    post.title.containsIgnoreCase(kw)
-                            .or(post.detailBody.val.containsIgnoreCase(kw))
-                            .or(post.author.nickname.containsIgnoreCase(kw))
-            );
-        }
+        builder.and(postSearchEngine.createKeywordFilter(kwType, kw));
     }
 
     private JPAQuery<Post> createPostsQuery(BooleanBuilder builder) {
@@ -71,7 +158,65 @@ public class PostRepositoryImpl implements PostRepositoryCustom {
                 .where(builder);
     }
 
-    private void applySorting(Pageable pageable, JPAQuery<Post> postsQuery) {
+    private JPAQuery<Tuple> createListItemRowsQuery(BooleanBuilder builder) {
+        return jpaQueryFactory
+                .select(
+                        post.id,
+                        post.createDate,
+                        post.modifyDate,
+                        member.id,
+                        member.nickname,
+                        member.profileImgUrl,
+                        post.title,
+                        post.published,
+                        post.listed,
+                        post.likesCount,
+                        post.commentsCount
+                )
+                .from(post)
+                .join(post.author, member)
+                .where(builder);
+    }
+
+    private List<PostListItem> toListItems(List<Tuple> rows) {
+        if (rows.isEmpty()) return List.of();
+
+        List<Long> ids = rows
+                .stream()
+                .map(row -> row.get(post.id))
+                .toList();
+
+        Map<Long, List<String>> tagContentsMap = jpaQueryFactory
+                .select(postTag.id.post.id, postTag.id.content)
+                .from(postTag)
+                .where(postTag.id.post.id.in(ids))
+                .fetch()
+                .stream()
+                .collect(Collectors.groupingBy(
+                        row -> row.get(postTag.id.post.id),
+                        Collectors.mapping(row -> row.get(postTag.id.content), Collectors.toList())
+                ));
+
+        return rows
+                .stream()
+                .map(row -> new PostListItem(
+                        row.get(post.id),
+                        row.get(post.createDate),
+                        row.get(post.modifyDate),
+                        row.get(member.id),
+                        row.get(member.nickname),
+                        Member.getProfileImgUrlOrDefault(row.get(member.profileImgUrl)),
+                        row.get(post.title),
+                        row.get(post.published),
+                        row.get(post.listed),
+                        row.get(post.likesCount),
+                        row.get(post.commentsCount),
+                        tagContentsMap.getOrDefault(row.get(post.id), List.of())
+                ))
+                .toList();
+    }
+
+    private void applySorting(Pageable pageable, JPAQuery<?> postsQuery) {
         for (Sort.Order o : pageable.getSort()) {
             PathBuilder pathBuilder = new PathBuilder(post.getType(), post.getMetadata());
             postsQuery.orderBy(new OrderSpecifier(o.isAscending() ? Order.ASC : Order.DESC, pathBuilder.get(o.getProperty())));
@@ -0,0 +1,181 @@
+package com.ll.rsv.domain.post.post.service;
+
+import com.ll.rsv.domain.post.post.dto.AbsPostDto;
+import com.ll.rsv.domain.post.post.entity.Post;
+import com.ll.rsv.domain.post.post.repository.PostRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// 글의 추천수, 댓글수를 관리한다.
+// immediate 모드 : 즉시 DB 에 원자적으로 반영
+// buffered 모드 : 메모리에 모아두었다가 주기적으로 한번에 반영, 한 글에 요청이 몰려도 행 잠금 경합이 생기지 않는다.
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PostCounterService {
+    private final PostRepository postRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${custom.post.counter.mode}")
+    private String mode;
+
+    // 글 id 별 아직 DB 에 반영되지 않은 증감량
+    // 한 글에 요청이 몰려도 서로 기다리지 않도록 LongAdder 에 더한다, sumThenReset 은 셀마다 getAndSet(0) 이라 그 사이에 더해진 값은 다음 주기로 넘어간다.
+    private final Map<Long, LongAdder> likesCountDeltas = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> commentsCountDeltas = new ConcurrentHashMap<>();
+
+    private boolean isBuffered() {
+        return mode.equals("buffered");
+    }
+
+    public void increaseLikesCount(Post post) {
+        changeLikesCount(post, 1);
+    }
+
+    public void decreaseLikesCount(Post post) {
+        changeLikesCount(post, -1);
+    }
+
+    private void changeLikesCount(Post post, long delta) {
+        if (isBuffered()) {
+            addDeltaAfterCommit(likesCountDeltas, post.getId(), delta);
+            return;
+        }
+
+        postRepository.increaseLikesCount(post.getId(), delta);
+
+        if (delta > 0) post.increaseLikesCount();
+        else post.decreaseLikesCount();
+    }
+
+    public void increaseCommentsCount(Post post) {
+        changeCommentsCount(post, 1);
+    }
+
+    public void decreaseCommentsCount(Post post) {
+        changeCommentsCount(post, -1);
+    }
+
+    private void changeCommentsCount(Post post, long delta) {
+        if (isBuffered()) {
+            addDeltaAfterCommit(commentsCountDeltas, post.getId(), delta);
+            return;
+        }
+
+        postRepository.increaseCommentsCount(post.getId(), delta);
+
+        if (delta > 0) post.increaseCommentsCount();
+        else post.decreaseCommentsCount();
+    }
+
+    // 롤백된 요청의 증감량이 반영되지 않도록 커밋 후에 버퍼에 넣는다.
+    private void addDeltaAfterCommit(Map<Long, LongAdder> deltas, long postId, long delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            addDelta(deltas, postId, delta);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                addDelta(deltas, postId, delta);
+            }
+        });
+    }
+
+    private void addDelta(Map<Long, LongAdder> deltas, long postId, long delta) {
+        // 이미 있는 항목이면 잠금 없이 가져온다.
+        LongAdder adder = deltas.get(postId);
+        if (adder == null) adder = deltas.computeIfAbsent(postId, id -> new LongAdder());
+
+        adder.add(delta);
+
+        // flush 가 그 사이에 이 항목을 지웠다면, 방금 더한 값이 반영되지 않았을 수 있으므로 새 항목으로 옮긴다.
+        // 이미 반영되었다면 sumThenReset 이 0 을 돌려주므로 두번 더해지지 않는다.
+        if (deltas.get(postId) != adder) {
+            long orphaned = adder.sumThenReset();
+
+            if (orphaned != 0) addDelta(deltas, postId, orphaned);
+        }
+    }
+
+    // 응답에 아직 DB 에 반영되지 않은 증감량을 더한다.
+    public void loadUnflushedCounts(List<? extends AbsPostDto> posts) {
+        if (!isBuffered()) return;
+
+        posts.forEach(post -> post.addUnflushedCounts(
+                getUnflushedDelta(likesCountDeltas, post.getId()),
+                getUnflushedDelta(commentsCountDeltas, post.getId())
+        ));
+    }
+
+    // 아직 DB 에 반영되지 않은 증감량까지 더한 댓글 수
+    public long getCommentsCount(Post post) {
+        if (!isBuffered()) return post.getCommentsCount();
+
+        return post.getCommentsCount() + getUnflushedDelta(commentsCountDeltas, post.getId());
+    }
+
+    private long getUnflushedDelta(Map<Long, LongAdder> deltas, long postId) {
+        LongAdder adder = deltas.get(postId);
+
+        return adder == null ? 0 : adder.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${custom.post.counter.flushIntervalMs}")
+    public void flush() {
+        flush(likesCountDeltas, "likes_count");
+        flush(commentsCountDeltas, "comments_count");
+    }
+
+    private void flush(Map<Long, LongAdder> deltas, String columnName) {
+        List<Object[]> batchArgs = new ArrayList<>();
+
+        for (Map.Entry<Long, LongAdder> entry : deltas.entrySet()) {
+            long postId = entry.getKey();
+            LongAdder adder = entry.getValue();
+
+            long sum = adder.sumThenReset();
+
+            // 한 주기 동안 변화가 없던 항목은 지운다, 지우기 직전에 더해진 값은 한번 더 꺼낸다.
+            if (sum == 0 && deltas.remove(postId, adder)) sum = adder.sumThenReset();
+
+            if (sum != 0) batchArgs.add(new Object[]{sum, postId});
+        }
+
+        if (batchArgs.isEmpty()) return;
+
+        try {
+            // 일부만 반영된 채로 실패하면 다시 더할 때 두번 반영되므로, 전부 반영되거나 전부 반영되지 않게 한다.
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "UPDATE post SET %s = %s + ? WHERE id = ?".formatted(columnName, columnName),
+                    batchArgs
+            ));
+        } catch (Exception e) {
+            // 롤백되었으므로 다음 주기에 다시 시도
+            log.error("Failed to flush post %s, will retry".formatted(columnName), e);
+            batchArgs.forEach(args -> addDelta(deltas, (long) args[1], (long) args[0]));
+        }
+    }
+
+    // 종료시 남은 증감량을 모두 반영
+    @PreDestroy
+    public void drain() {
+        if (isBuffered()) flush();
+    }
+}
@@ -2,25 +2,28 @@ package com.ll.rsv.domain.post.post.service;
 
 import com.ll.rsv.domain.base.genFile.service.GenFileService.GenFileService;
 import com.ll.rsv.domain.member.member.entity.Member;
+import com.ll.rsv.domain.post.post.dto.AbsPostDto;
 import com.ll.rsv.domain.post.post.entity.Post;
 import com.ll.rsv.domain.post.post.entity.PostDetail;
+import com.ll.rsv.domain.post.post.repository.PostCountCache;
 import com.ll.rsv.domain.post.post.repository.PostDetailRepository;
+import com.ll.rsv.domain.post.post.repository.PostListItem;
 import com.ll.rsv.domain.post.post.repository.PostRepository;
-import com.ll.rsv.domain.post.postLike.entity.PostLike;
 import com.ll.rsv.domain.post.postLike.repository.PostLikeRepository;
-import com.ll.rsv.global.rqCache.RqCache;
+import com.ll.rsv.domain.post.postSearch.service.PostSearchEngine;
 import com.ll.rsv.global.rsData.RsData;
 import com.ll.rsv.standard.base.KwTypeV1;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
@@ -31,7 +34,9 @@ public class PostService {
     private final PostDetailRepository postDetailRepository;
     private final PostLikeRepository postLikeRepository;
     private final GenFileService genFileService;
-    private final RqCache rqCache;
+    private final PostSearchEngine postSearchEngine;
+    private final PostCountCache postCountCache;
+    private final PostCounterService postCounterService;
 
     @Transactional
     public Post write(Member author, String title, String body, boolean published, boolean listed) {
@@ -54,6 +59,9 @@ public class PostService {
 
         saveBody(post, body);
 
+        postSearchEngine.index(post);
+        postCountCache.invalidateAll();
+
         return post;
     }
 
@@ -97,7 +105,9 @@ public class PostService {
     @Transactional
     public void delete(Post post) {
         genFileService.deleteByRel(post);
-        postRepository.delete(post);
+        postSearchEngine.remove(post);
+        postRepository.deleteWithAssociations(post);
+        postCountCache.invalidateAll();
     }
 
     @Transactional
@@ -108,69 +118,116 @@ public class PostService {
         post.setTagContents(tagContents);
 
         editBody(post, body);
+        postCountCache.invalidateAll();
     }
 
     public boolean canRead(Member actor, Post post) {
         if (post == null) return false;
 
-        if (post.isPublished()) return true; // 공개글이면 가능
+        return canRead(actor, post.getAuthor().getId(), post.isPublished());
+    }
+
+    private boolean canRead(Member actor, long authorId, boolean published) {
+        if (published) return true; // 공개글이면 가능
 
         if (actor == null) return false;
         if (actor.isAdmin()) return true; // 관리자이면 가능
 
-        return actor.equals(post.getAuthor()); // 그것도 아니라면 본인이 쓴 글이여야 함
+        return actor.getId() == authorId; // 그것도 아니라면 본인이 쓴 글이여야 함
     }
 
     public boolean canEdit(Member actor, Post post) {
         if (actor == null) return false;
         if (post == null) return false;
 
-        return actor.equals(post.getAuthor()); // 무조건 본인만 가능
+        return canEdit(actor, post.getAuthor().getId());
+    }
+
+    private boolean canEdit(Member actor, long authorId) {
+        return actor.getId() == authorId; // 무조건 본인만 가능
     }
 
     public Boolean canDelete(Member actor, Post post) {
         if (actor == null) return false;
         if (post == null) return false;
 
+        return canDelete(actor, post.getAuthor().getId());
+    }
+
+    private boolean canDelete(Member actor, long authorId) {
         if (actor.isAdmin()) return true; // 관리자이면 가능
-        return actor.equals(post.getAuthor()); // 본인이면 가능
+        return actor.getId() == authorId; // 본인이면 가능
     }
 
     public Boolean canLike(Member actor, Post post) {
         if (actor == null) return false;
         if (post == null) return false;
 
-        Map<Long, Boolean> likeMap = rqCache.get("likeMap");
-        if (likeMap != null && likeMap.containsKey(post.getId())) return !likeMap.get(post.getId());
-
-        return !post.hasLike(actor);
+        return !hasLike(actor, post.getId());
     }
 
     public Boolean canCancelLike(Member actor, Post post) {
         if (actor == null) return false;
         if (post == null) return false;
 
-        Map<Long, Boolean> likeMap = rqCache.get("likeMap");
-        if (likeMap != null && likeMap.containsKey(post.getId())) return likeMap.get(post.getId());
+        return hasLike(actor, post.getId());
+    }
+
+    // post.likes 를 전부 불러오지 않고 (post_id, member_id) 로 존재여부만 확인
+    private boolean hasLike(Member actor, long postId) {
+        return postLikeRepository.existsByIdPostIdAndIdMember(postId, actor);
+    }
+
+    // 글들에 대한 actor 의 권한을 한번에 채운다, 추천여부는 글이 몇개든 1번의 쿼리로 확인한다.
+    public void loadActorCapabilities(Member actor, List<? extends AbsPostDto> posts) {
+        Set<Long> likedPostIds = findLikedPostIds(actor, posts);
+
+        posts.forEach(post -> {
+            boolean liked = likedPostIds.contains(post.getId());
+
+            post.setActorCanRead(canRead(actor, post.getAuthorId(), post.isPublished()));
+            post.setActorCanEdit(actor != null && canEdit(actor, post.getAuthorId()));
+            post.setActorCanDelete(actor != null && canDelete(actor, post.getAuthorId()));
+            post.setActorCanLike(actor != null && !liked);
+            post.setActorCanCancelLike(actor != null && liked);
+        });
+    }
+
+    private Set<Long> findLikedPostIds(Member actor, List<? extends AbsPostDto> posts) {
+        if (actor == null) return Set.of();
+        if (posts.isEmpty()) return Set.of();
+
+        if (posts.size() == 1) {
+            long postId = posts.get(0).getId();
 
-        return post.hasLike(actor);
+            return hasLike(actor, postId) ? Set.of(postId) : Set.of();
+        }
+
+        List<Long> postIds = posts
+                .stream()
+                .map(AbsPostDto::getId)
+                .toList();
+
+        return new HashSet<>(postLikeRepository.findPostIdsByMemberAndPostIdIn(actor, postIds));
     }
 
+    // post.likes 를 불러오지 않고 post_like 행을 직접 추가하고, likesCount 는 PostCounterService 로 증가시킨다.
+    // 같은 회원이 동시에 여러번 요청해도 한번만 반영된다.
     @Transactional
     public void like(Member actor, Post post) {
-        post.addLike(actor);
+        if (postLikeRepository.insertIfAbsent(post.getId(), actor.getId()) == 0) return;
+
+        postCounterService.increaseLikesCount(post);
     }
 
     @Transactional
     public void cancelLike(Member actor, Post post) {
-        post.deleteLike(actor);
-    }
-
+        if (postLikeRepository.deleteByPostIdAndMemberId(post.getId(), actor.getId()) == 0) return;
 
-    private List<PostLike> findLikesByPostInAndMember(List<Post> posts, Member member) {
-        return postLikeRepository.findByIdPostInAndIdMember(posts, member);
+        postCounterService.decreaseLikesCount(post);
     }
 
+
     @Transactional
     public RsData<Post> findTempOrMake(Member author) {
         AtomicBoolean isNew = new AtomicBoolean(false);
@@ -194,30 +251,19 @@ public class PostService {
         return postRepository.findByKw(kwType, kw, author, published, listed, pageable);
     }
 
-    @Transactional
-    public void editBody(Post post, String body) {
-        saveBody(post, body);
+    public Page<PostListItem> findListItemsByKw(KwTypeV1 kwType, String kw, Member author, Boolean published, Boolean listed, Pageable pageable) {
+        return postRepository.findListItemsByKw(kwType, kw, author, published, listed, pageable);
     }
 
-    public void loadLikeMap(List<Post> posts, Member member) {
-        List<PostLike> likes = findLikesByPostInAndMember(posts, member);
-
-        Map<Long, Boolean> likeMap_ = likes
-                .stream()
-                .collect(
-                        HashMap::new,
-                        (map, like) -> map.put(like.getPost().getId(), true),
-                        HashMap::putAll
-                );
+    public Slice<PostListItem> findListItemsByKwAfter(KwTypeV1 kwType, String kw, Member author, Boolean published, Boolean listed, Long after, int size) {
+        return postRepository.findListItemsByKwAfter(kwType, kw, author, published, listed, after, size);
+    }
 
-        Map<Long, Boolean> likeMap = posts
-                .stream()
-                .collect(
-                        HashMap::new,
-                        (map, post) -> map.put(post.getId(), likeMap_.getOrDefault(post.getId(), false)),
-                        HashMap::putAll
-                );
+    @Transactional
+    public void editBody(Post post, String body) {
+        saveBody(post, body);
 
-        rqCache.put("likeMap", likeMap);
+        postSearchEngine.index(post);
+        postCountCache.invalidateKwCounts();
     }
 }
@@ -1,13 +1,17 @@
 package com.ll.rsv.domain.post.postComment.controller;
 
 import com.ll.rsv.domain.post.post.entity.Post;
+import com.ll.rsv.domain.post.post.service.PostCounterService;
 import com.ll.rsv.domain.post.post.service.PostService;
 import com.ll.rsv.domain.post.postComment.dto.PostCommentDto;
 import com.ll.rsv.domain.post.postComment.entity.PostComment;
+import com.ll.rsv.domain.post.postComment.repository.PostCommentTreeItem;
 import com.ll.rsv.domain.post.postComment.service.PostCommentService;
+import com.ll.rsv.global.app.AppConfig;
 import com.ll.rsv.global.exceptions.GlobalException;
 import com.ll.rsv.global.rq.Rq;
 import com.ll.rsv.global.rsData.RsData;
+import com.ll.rsv.standard.base.CursorPageDto;
 import com.ll.rsv.standard.base.Empty;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -17,11 +21,17 @@ import jakarta.persistence.PersistenceContext;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.lang.NonNull;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.springframework.http.MediaType.ALL_VALUE;
@@ -36,6 +46,7 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 public class ApiV1PostCommentController {
     private final Rq rq;
     private final PostService postService;
+    private final PostCounterService postCounterService;
     private final PostCommentService postCommentService;
     @PersistenceContext
     private EntityManager entityManager;
@@ -71,6 +82,130 @@ public class ApiV1PostCommentController {
     }
 
 
+    public record GetPostCommentTreeResponseBody(
+            @NonNull CursorPageDto<PostCommentDto> itemPage,
+            long totalCount
+    ) {
+    }
+
+    @GetMapping(value = "/{postId}/tree", consumes = ALL_VALUE)
+    @Operation(summary = "댓글 다건조회, 커서 방식, 각 댓글의 최신 답글 일부 포함")
+    public RsData<GetPostCommentTreeResponseBody> getPostCommentTree(
+            @PathVariable long postId,
+            @RequestParam(defaultValue = "2") int depth,
+            @RequestParam(defaultValue = "3") int repliesPerComment,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer size
+    ) {
+        Post post = postService.findById(postId).orElseThrow(GlobalException.E404::new);
+
+        if (!postService.canRead(rq.getMember(), post))
+            throw new GlobalException.E403();
+
+        depth = Math.max(1, Math.min(depth, 2));
+        repliesPerComment = Math.max(0, Math.min(repliesPerComment, 20));
+        int pageSize = getCursorPageSize(size);
+
+        List<PostCommentTreeItem> items = postCommentService.findTreeItems(post, depth, repliesPerComment, before, pageSize);
+
+        // 최상위 댓글이 먼저 오므로, 답글의 부모는 항상 먼저 만들어져 있다.
+        Map<Long, PostCommentDto> dtosById = new LinkedHashMap<>();
+        List<PostCommentDto> _items = new ArrayList<>();
+
+        for (PostCommentTreeItem item : items) {
+            PostCommentDto dto = treeItemToDto(item);
+            dtosById.put(item.id(), dto);
+
+            if (item.parentCommentId() == null) {
+                if (depth >= 2) dto.setChildren(new ArrayList<>());
+                _items.add(dto);
+            } else {
+                PostCommentDto parentDto = dtosById.get(item.parentCommentId());
+
+                if (parentDto != null) parentDto.getChildren().add(dto);
+            }
+        }
+
+        // 1개 더 불러온 최상위 댓글은 다음 페이지가 있는지 확인하는 용도, 답글과 함께 버린다.
+        boolean hasNext = _items.size() > pageSize;
+        if (hasNext) _items = _items.subList(0, pageSize);
+
+        Long nextCursor = _items.isEmpty() ? null : _items.get(_items.size() - 1).getId();
+
+        return RsData.of(
+                new GetPostCommentTreeResponseBody(
+                        new CursorPageDto<>(new SliceImpl<>(_items, PageRequest.of(0, pageSize), hasNext), nextCursor),
+                        postCounterService.getCommentsCount(post)
+                )
+        );
+    }
+
+
+    public record GetPostCommentsByCursorResponseBody(
+            @NonNull CursorPageDto<PostCommentDto> itemPage,
+            long totalCount
+    ) {
+    }
+
+    @GetMapping(value = "/{postId}/cursor", consumes = ALL_VALUE)
+    @Operation(summary = "댓글 다건조회, 커서 방식")
+    public RsData<GetPostCommentsByCursorResponseBody> getPostCommentsByCursor(
+            @PathVariable long postId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer size
+    ) {
+        Post post = postService.findById(postId).orElseThrow(GlobalException.E404::new);
+
+        if (!postService.canRead(rq.getMember(), post))
+            throw new GlobalException.E403();
+
+        Slice<PostComment> itemSlice = postCommentService.findPublishedBefore(post, null, before, getCursorPageSize(size));
+
+        return RsData.of(
+                new GetPostCommentsByCursorResponseBody(
+                        postCommentSliceToCursorPageDto(itemSlice),
+                        // 세지 않고 글의 댓글 수를 그대로 사용한다.
+                        postCounterService.getCommentsCount(post)
+                )
+        );
+    }
+
+
+    public record GetPostSubCommentsByCursorResponseBody(
+            @NonNull CursorPageDto<PostCommentDto> itemPage,
+            long totalCount
+    ) {
+    }
+
+    @GetMapping(value = "/{postId}/{postCommentId}/children/cursor", consumes = ALL_VALUE)
+    @Operation(summary = "서브 댓글 다건조회, 커서 방식")
+    public RsData<GetPostSubCommentsByCursorResponseBody> getPostSubCommentsByCursor(
+            @PathVariable long postId,
+            @PathVariable long postCommentId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer size
+    ) {
+        Post post = postService.findById(postId).orElseThrow(GlobalException.E404::new);
+
+        if (!postService.canRead(rq.getMember(), post))
+            throw new GlobalException.E403();
+
+        PostComment postComment = postCommentService.findById(postCommentId).orElseThrow(GlobalException.E404::new);
+
+        if (!postCommentService.canRead(rq.getMember(), postComment))
+            throw new GlobalException.E403();
+
+        Slice<PostComment> itemSlice = postCommentService.findPublishedBefore(post, postComment, before, getCursorPageSize(size));
+
+        return RsData.of(
+                new GetPostSubCommentsByCursorResponseBody(
+                        postCommentSliceToCursorPageDto(itemSlice),
+                        postComment.getChildrenCount()
+                )
+        );
+    }
+
+
     public record GetPostSubCommentsResponseBody(
             @NonNull List<PostCommentDto> items
     ) {
@@ -85,12 +220,12 @@ public class ApiV1PostCommentController {
         Post post = postService.findById(postId).orElseThrow(GlobalException.E404::new);
 
         if (!postService.canRead(rq.getMember(), post))
-            throw new GlobalException("403-1", "권한이 없습니다.");
+            throw new GlobalException.E403();
 
         PostComment postComment = postCommentService.findById(postCommentId).orElseThrow(GlobalException.E404::new);
 
         if (!postCommentService.canRead(rq.getMember(), postComment))
-            throw new GlobalException("403-1", "권한이 없습니다.");
+            throw new GlobalException.E403();
 
         List<PostComment> items = postCommentService.findByPostAndPublishedAndParentCommentOrderByIdDesc(
                 post,
@@ -123,7 +258,7 @@ public class ApiV1PostCommentController {
                 .orElseThrow(GlobalException.E404::new);
 
         if (!postCommentService.canDelete(rq.getMember(), postComment))
-            throw new GlobalException("403-1", "권한이 없습니다.");
+            throw new GlobalException.E403();
 
         postCommentService.delete(post, postComment);
 
@@ -206,6 +341,30 @@ public class ApiV1PostCommentController {
     }
 
 
+    private int getCursorPageSize(Integer size) {
+        if (size == null) return AppConfig.getBasePageSize();
+
+        return Math.max(1, Math.min(size, 100));
+    }
+
+    private CursorPageDto<PostCommentDto> postCommentSliceToCursorPageDto(Slice<PostComment> itemSlice) {
+        Slice<PostCommentDto> _itemSlice = itemSlice.map(this::postCommentToDto);
+
+        List<PostCommentDto> items = _itemSlice.getContent();
+        Long nextCursor = items.isEmpty() ? null : items.get(items.size() - 1).getId();
+
+        return new CursorPageDto<>(_itemSlice, nextCursor);
+    }
+
+    private PostCommentDto treeItemToDto(PostCommentTreeItem item) {
+        PostCommentDto dto = new PostCommentDto(item);
+        dto.setActorCanDelete(postCommentService.canDelete(rq.getMember(), item));
+        dto.setActorCanEdit(postCommentService.canEdit(rq.getMember(), item));
+        dto.setActorCanReply(postCommentService.canReply(rq.getMember(), item));
+
+        return dto;
+    }
+
     private PostCommentDto postCommentToDto(PostComment postComment) {
         PostCommentDto dto = new PostCommentDto(postComment);
         dto.setActorCanDelete(postCommentService.canDelete(rq.getMember(), postComment));
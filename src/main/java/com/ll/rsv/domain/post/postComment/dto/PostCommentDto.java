@@ -1,11 +1,13 @@
 package com.ll.rsv.domain.post.postComment.dto;
 
 import com.ll.rsv.domain.post.postComment.entity.PostComment;
+import com.ll.rsv.domain.post.postComment.repository.PostCommentTreeItem;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.lang.NonNull;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Getter
 public class PostCommentDto {
@@ -35,6 +37,10 @@ public class PostCommentDto {
     @Setter
     private Boolean actorCanReply;
 
+    // 트리로 불러온 경우에만, 최신 답글 일부
+    @Setter
+    private List<PostCommentDto> children;
+
     public PostCommentDto(PostComment postComment) {
         this.id = postComment.getId();
         this.createDate = postComment.getCreateDate();
@@ -46,4 +52,16 @@ public class PostCommentDto {
         this.childrenCount = postComment.getChildrenCount();
         this.parentCommentId = postComment.getParentComment() == null ? 0 : postComment.getParentComment().getId();
     }
+
+    public PostCommentDto(PostCommentTreeItem item) {
+        this.id = item.id();
+        this.createDate = item.createDate();
+        this.modifyDate = item.modifyDate();
+        this.authorId = item.authorId();
+        this.authorName = item.authorNickname();
+        this.authorProfileImgUrl = item.authorProfileImgUrl();
+        this.body = item.body();
+        this.childrenCount = item.childrenCount();
+        this.parentCommentId = item.parentCommentId() == null ? 0 : item.parentCommentId();
+    }
 }
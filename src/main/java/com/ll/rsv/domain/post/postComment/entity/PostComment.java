@@ -3,9 +3,7 @@ package com.ll.rsv.domain.post.postComment.entity;
 import com.ll.rsv.domain.member.member.entity.Member;
 import com.ll.rsv.domain.post.post.entity.Post;
 import com.ll.rsv.global.jpa.entity.BaseTime;
-import jakarta.persistence.Entity;
-import jakarta.persistence.ManyToOne;
-import jakarta.persistence.OneToMany;
+import jakarta.persistence.*;
 import lombok.*;
 
 import java.util.ArrayList;
@@ -16,6 +14,12 @@ import static jakarta.persistence.FetchType.LAZY;
 import static lombok.AccessLevel.PROTECTED;
 
 @Entity
+@Table(
+        indexes = {
+                // 글의 (최상위 댓글 또는 특정 댓글의) 공개된 답글들을 최신순으로 커서 페이징할 때
+                @Index(name = "PostComment__idx1", columnList = "post_id, parent_comment_id, published, id DESC")
+        }
+)
 @Builder
 @NoArgsConstructor(access = PROTECTED)
 @AllArgsConstructor(access = PROTECTED)
@@ -28,6 +32,8 @@ public class PostComment extends BaseTime {
     @OneToMany(mappedBy = "parentComment", cascade = ALL, orphanRemoval = true)
     @Builder.Default
     private List<PostComment> children = new ArrayList<>();
+    // children 을 불러오지 않도록 PostCommentService 에서 SQL 로 증감한다, 엔티티의 값은 응답용
+    @Column(columnDefinition = "BIGINT default 0", updatable = false)
     @Setter(PROTECTED)
     private long childrenCount;
 
@@ -38,25 +44,6 @@ public class PostComment extends BaseTime {
     private boolean published;
     private String body;
 
-    public void addComment(Member author, String body) {
-        addComment(author, body, true);
-    }
-
-    public PostComment addComment(Member author, String body, boolean published) {
-        PostComment comment = PostComment.builder()
-                .parentComment(this)
-                .post(post)
-                .author(author)
-                .body(body)
-                .published(published)
-                .build();
-        this.children.add(comment);
-
-        if (published) childrenCount++;
-
-        return comment;
-    }
-
     public boolean isReply() {
         return parentComment != null;
     }
@@ -64,4 +51,8 @@ public class PostComment extends BaseTime {
     public void increaseChildrenCount() {
         childrenCount++;
     }
+
+    public void decreaseChildrenCount() {
+        childrenCount--;
+    }
 }
@@ -3,13 +3,25 @@ package com.ll.rsv.domain.post.postComment.repository;
 import com.ll.rsv.domain.member.member.entity.Member;
 import com.ll.rsv.domain.post.post.entity.Post;
 import com.ll.rsv.domain.post.postComment.entity.PostComment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface PostCommentRepository extends JpaRepository<PostComment, Long> {
+public interface PostCommentRepository extends JpaRepository<PostComment, Long>, PostCommentRepositoryCustom {
     Optional<PostComment> findTop1ByPostAndAuthorAndParentCommentAndPublishedAndBodyOrderByIdDesc(Post post, Member author, PostComment parentComment, boolean published, String body);
 
     List<PostComment> findByPostAndPublishedAndParentCommentOrderByIdDesc(Post post, boolean published, PostComment parentComment);
+
+    @EntityGraph(attributePaths = {"author"})
+    Slice<PostComment> findByPostAndParentCommentAndPublishedAndIdLessThanOrderByIdDesc(Post post, PostComment parentComment, boolean published, long id, Pageable pageable);
+
+    @Modifying
+    @Query("update PostComment c set c.childrenCount = c.childrenCount + :delta where c.id = :id")
+    int increaseChildrenCount(long id, long delta);
 }
@@ -0,0 +1,7 @@
+package com.ll.rsv.domain.post.postComment.repository;
+
+import java.util.List;
+
+public interface PostCommentRepositoryCustom {
+    List<PostCommentTreeItem> findTreeItems(long postId, int depth, int repliesPerComment, Long before, int limit);
+}
@@ -0,0 +1,67 @@
+package com.ll.rsv.domain.post.postComment.repository;
+
+import com.ll.rsv.domain.member.member.entity.Member;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class PostCommentRepositoryImpl implements PostCommentRepositoryCustom {
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    // 공개된 최상위 댓글들 중 id 가 before 보다 작은 것을 최신순으로 limit 개, 그리고 그 댓글들의 최신 답글 repliesPerComment 개를 작성자와 함께 한번에 불러온다.
+    // 답글의 순위는 이번 페이지의 최상위 댓글들의 답글에 대해서만 매긴다.
+    // 최상위 댓글이 먼저, 같은 부모 안에서는 최신순
+    @Override
+    public List<PostCommentTreeItem> findTreeItems(long postId, int depth, int repliesPerComment, Long before, int limit) {
+        String sql = """
+                with page_comments as (
+                    select pc.id
+                    from post_comment pc
+                    where pc.post_id = :postId
+                    and pc.parent_comment_id is null
+                    and pc.published = true
+                    and pc.id < :before
+                    order by pc.id desc
+                    limit :limit
+                )
+                select c.id, c.create_date, c.modify_date, c.body, c.children_count, c.parent_comment_id,
+                       m.id as author_id, m.nickname as author_nickname, m.profile_img_url as author_profile_img_url
+                from (
+                    select pc.*, row_number() over (partition by pc.parent_comment_id order by pc.id desc) as rn
+                    from post_comment pc
+                    where pc.post_id = :postId
+                    and pc.published = true
+                    and (
+                        pc.id in (select id from page_comments)
+                        or (:depth >= 2 and pc.parent_comment_id in (select id from page_comments))
+                    )
+                ) c
+                join member m on m.id = c.author_id
+                where c.parent_comment_id is null
+                or c.rn <= :repliesPerComment
+                order by case when c.parent_comment_id is null then 0 else 1 end, c.id desc
+                """;
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("postId", postId)
+                .addValue("depth", depth)
+                .addValue("repliesPerComment", repliesPerComment)
+                .addValue("before", before == null ? Long.MAX_VALUE : before)
+                .addValue("limit", limit);
+
+        return namedParameterJdbcTemplate.query(sql, params, (rs, rowNum) -> new PostCommentTreeItem(
+                rs.getLong("id"),
+                rs.getTimestamp("create_date").toLocalDateTime(),
+                rs.getTimestamp("modify_date").toLocalDateTime(),
+                rs.getLong("author_id"),
+                rs.getString("author_nickname"),
+                Member.getProfileImgUrlOrDefault(rs.getString("author_profile_img_url")),
+                rs.getString("body"),
+                rs.getLong("children_count"),
+                rs.getObject("parent_comment_id", Long.class)
+        ));
+    }
+}
@@ -0,0 +1,17 @@
+package com.ll.rsv.domain.post.postComment.repository;
+
+import java.time.LocalDateTime;
+
+// 댓글 트리 전용 조회 결과, 작성자 정보를 엔티티 로딩 없이 담는다.
+public record PostCommentTreeItem(
+        long id,
+        LocalDateTime createDate,
+        LocalDateTime modifyDate,
+        long authorId,
+        String authorNickname,
+        String authorProfileImgUrl,
+        String body,
+        long childrenCount,
+        Long parentCommentId
+) {
+}
@@ -2,10 +2,14 @@ package com.ll.rsv.domain.post.postComment.service;
 
 import com.ll.rsv.domain.member.member.entity.Member;
 import com.ll.rsv.domain.post.post.entity.Post;
+import com.ll.rsv.domain.post.post.service.PostCounterService;
 import com.ll.rsv.domain.post.postComment.entity.PostComment;
 import com.ll.rsv.domain.post.postComment.repository.PostCommentRepository;
+import com.ll.rsv.domain.post.postComment.repository.PostCommentTreeItem;
 import com.ll.rsv.global.rsData.RsData;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,30 +22,62 @@ import java.util.concurrent.atomic.AtomicBoolean;
 @RequiredArgsConstructor
 public class PostCommentService {
     private final PostCommentRepository postCommentRepository;
+    private final PostCounterService postCounterService;
 
-
+    // post.comments, parentComment.children 를 거치지 않는다, 거치면 글의 모든 댓글(답글)을 불러온다.
     @Transactional
     public void delete(Post post, PostComment postComment) {
-        post.deleteComment(postComment);
+        postCommentRepository.delete(postComment);
+
+        if (!postComment.isPublished()) return;
+
+        if (postComment.isReply()) {
+            changeChildrenCount(postComment.getParentComment(), -1);
+        } else {
+            postCounterService.decreaseCommentsCount(post);
+        }
     }
 
     @Transactional
     public PostComment write(Member author, Post post, PostComment parentComment, String body, boolean published) {
-        PostComment postComment = parentComment == null ? post.addComment(author, body, published) : parentComment.addComment(author, body, published);
+        PostComment postComment = PostComment.builder()
+                .post(post)
+                .parentComment(parentComment)
+                .author(author)
+                .body(body)
+                .published(published)
+                .build();
+
+        postCommentRepository.save(postComment);
+
+        if (published) {
+            if (parentComment != null) {
+                changeChildrenCount(parentComment, 1);
+            } else {
+                postCounterService.increaseCommentsCount(post);
+            }
+        }
 
         return postComment;
     }
 
+    private void changeChildrenCount(PostComment parentComment, long delta) {
+        postCommentRepository.increaseChildrenCount(parentComment.getId(), delta);
+
+        if (delta > 0) parentComment.increaseChildrenCount();
+        else parentComment.decreaseChildrenCount();
+    }
+
     @Transactional
     public void edit(Post post, PostComment postComment, String body) {
         postComment.setBody(body);
 
         if (!postComment.isPublished()) {
             if ( postComment.isReply() ) {
-                postComment.getParentComment().increaseChildrenCount();
+                changeChildrenCount(postComment.getParentComment(), 1);
             }
             else {
-                postComment.getPost().increaseCommentsCount();
+                postCounterService.increaseCommentsCount(postComment.getPost());
             }
         }
 
@@ -62,6 +98,22 @@ public class PostCommentService {
         return actor.equals(postComment.getAuthor());
     }
 
+    // 엔티티 없이 조회한 댓글(공개된 것만)에 대해
+    public boolean canDelete(Member actor, PostCommentTreeItem item) {
+        if (actor == null) return false;
+        if (actor.isAdmin()) return true;
+        return actor.getId() == item.authorId();
+    }
+
+    public boolean canEdit(Member actor, PostCommentTreeItem item) {
+        if (actor == null) return false;
+        return actor.getId() == item.authorId();
+    }
+
+    public boolean canReply(Member actor, PostCommentTreeItem item) {
+        return actor != null;
+    }
+
     @Transactional
     public RsData<PostComment> findTempReplyOrMake(Member author, Post post, PostComment parentComment) {
         AtomicBoolean isNew = new AtomicBoolean(false);
@@ -108,6 +160,23 @@ public class PostCommentService {
         return postCommentRepository.findByPostAndPublishedAndParentCommentOrderByIdDesc(post, true, parentComment);
     }
 
+    // depth 1 이면 최상위 댓글만, 2 이면 각 댓글의 최신 답글 repliesPerComment 개까지
+    // 최상위 댓글은 id 가 before 보다 작은 것들을 최신순으로 size 개, 다음 페이지가 있는지 알 수 있도록 1개를 더 불러온다.
+    public List<PostCommentTreeItem> findTreeItems(Post post, int depth, int repliesPerComment, Long before, int size) {
+        return postCommentRepository.findTreeItems(post.getId(), depth, repliesPerComment, before, size + 1);
+    }
+
+    // parentComment 가 null 이면 최상위 댓글들, id 가 before 보다 작은 것들을 최신순으로 size 개
+    public Slice<PostComment> findPublishedBefore(Post post, PostComment parentComment, Long before, int size) {
+        return postCommentRepository.findByPostAndParentCommentAndPublishedAndIdLessThanOrderByIdDesc(
+                post,
+                parentComment,
+                true,
+                before == null ? Long.MAX_VALUE : before,
+                PageRequest.of(0, size)
+        );
+    }
+
     public Optional<PostComment> findById(long id) {
         return postCommentRepository.findById(id);
     }
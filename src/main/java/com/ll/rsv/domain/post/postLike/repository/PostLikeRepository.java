@@ -1,13 +1,26 @@
 package com.ll.rsv.domain.post.postLike.repository;
 
 import com.ll.rsv.domain.member.member.entity.Member;
-import com.ll.rsv.domain.post.post.entity.Post;
 import com.ll.rsv.domain.post.postLike.entity.PostLike;
 import com.ll.rsv.domain.post.postLike.entity.PostLikeId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 public interface PostLikeRepository extends JpaRepository<PostLike, PostLikeId> {
-    List<PostLike> findByIdPostInAndIdMember(List<Post> posts, Member member);
+    @Query("select l.id.post.id from PostLike l where l.id.member = :member and l.id.post.id in :postIds")
+    List<Long> findPostIdsByMemberAndPostIdIn(Member member, List<Long> postIds);
+
+    boolean existsByIdPostIdAndIdMember(long postId, Member member);
+
+    // 이미 추천한 경우에는 아무것도 하지 않는다, 추가된 행의 수를 리턴
+    @Modifying
+    @Query(value = "insert into post_like (post_id, member_id) values (:postId, :memberId) on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(long postId, long memberId);
+
+    @Modifying
+    @Query("delete from PostLike l where l.id.post.id = :postId and l.id.member.id = :memberId")
+    int deleteByPostIdAndMemberId(long postId, long memberId);
 }
@@ -0,0 +1,41 @@
+package com.ll.rsv.domain.post.postSearch.entity;
+
+import com.ll.rsv.domain.post.post.entity.Post;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.*;
+import lombok.experimental.Delegate;
+
+import static lombok.AccessLevel.PROTECTED;
+
+// 글 검색용 역색인, 제목/본문을 2글자 단위(bigram)로 잘라서 저장한다.
+@Entity
+@Table(
+        indexes = {
+                // 검색어의 gram 들로 글을 찾을 때, post_id 까지 포함해서 테이블을 읽지 않는다.
+                @Index(name = "PostSearchGram__idx2", columnList = "gram, fieldName, post_id")
+        }
+)
+@NoArgsConstructor(access = PROTECTED)
+@AllArgsConstructor(access = PROTECTED)
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class PostSearchGram {
+    @EmbeddedId
+    @Delegate
+    @EqualsAndHashCode.Include
+    private PostSearchGramId id;
+
+    @Builder
+    private static PostSearchGram of(Post post, String fieldName, String gram) {
+        return new PostSearchGram(
+                PostSearchGramId.builder()
+                        .post(post)
+                        .fieldName(fieldName)
+                        .gram(gram)
+                        .build()
+        );
+    }
+}
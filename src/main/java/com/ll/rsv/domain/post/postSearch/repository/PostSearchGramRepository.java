@@ -0,0 +1,24 @@
+package com.ll.rsv.domain.post.postSearch.repository;
+
+import com.ll.rsv.domain.post.post.entity.Post;
+import com.ll.rsv.domain.post.postSearch.entity.PostSearchGram;
+import com.ll.rsv.domain.post.postSearch.entity.PostSearchGramId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PostSearchGramRepository extends JpaRepository<PostSearchGram, PostSearchGramId> {
+    @Query("select g.id.gram from PostSearchGram g where g.id.post = :post and g.id.fieldName = :fieldName")
+    List<String> findGramsByPostAndFieldName(Post post, String fieldName);
+
+    @Modifying
+    @Query("delete from PostSearchGram g where g.id.post = :post and g.id.fieldName = :fieldName and g.id.gram in :grams")
+    void deleteByPostAndFieldNameAndGramIn(Post post, String fieldName, Collection<String> grams);
+
+    @Modifying
+    @Query("delete from PostSearchGram g where g.id.post = :post")
+    void deleteByPost(Post post);
+}
@@ -0,0 +1,38 @@
+package com.ll.rsv.domain.post.postSearch.service;
+
+import com.ll.rsv.domain.post.post.entity.Post;
+import com.ll.rsv.standard.base.KwTypeV1;
+import com.querydsl.core.types.Predicate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import static com.ll.rsv.domain.post.post.entity.QPost.post;
+
+// 색인 없이 like 검색을 하는 엔진, 색인에 문제가 생겼을 때 되돌아가기 위한 용도
+@Component
+@ConditionalOnProperty(name = "custom.post.search.engine", havingValue = "like")
+public class LikePostSearchEngine implements PostSearchEngine {
+    @Override
+    public Predicate createKeywordFilter(KwTypeV1 kwType, String kw) {
+        return switch (kwType) {
+            case TITLE -> post.title.containsIgnoreCase(kw);
+            case BODY -> post.detailBody.val.containsIgnoreCase(kw);
+            case NAME -> post.author.nickname.containsIgnoreCase(kw);
+            default -> post.title.containsIgnoreCase(kw)
+                    .or(post.detailBody.val.containsIgnoreCase(kw))
+                    .or(post.author.nickname.containsIgnoreCase(kw));
+        };
+    }
+
+    @Override
+    public void index(Post post) {
+    }
+
+    @Override
+    public void remove(Post post) {
+    }
+
+    @Override
+    public void reindexAllIfEmpty() {
+    }
+}
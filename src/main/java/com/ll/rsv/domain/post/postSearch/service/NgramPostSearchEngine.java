@@ -0,0 +1,187 @@
+package com.ll.rsv.domain.post.postSearch.service;
+
+import com.ll.rsv.domain.post.post.entity.Post;
+import com.ll.rsv.domain.post.postSearch.entity.PostSearchGram;
+import com.ll.rsv.domain.post.postSearch.repository.PostSearchGramRepository;
+import com.ll.rsv.standard.base.KwTypeV1;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static com.ll.rsv.domain.post.post.entity.QPost.post;
+import static com.ll.rsv.domain.post.postSearch.entity.QPostSearchGram.postSearchGram;
+
+// 제목/본문을 bigram 역색인으로 검색하는 엔진
+// 한글은 형태소 분석 없이 부분일치 검색이 되어야 하므로 tsvector 대신 bigram 을 사용한다.
+// 색인으로 후보를 좁힌 뒤, 기존과 같은 like 조건으로 한번 더 걸러서 결과는 기존 검색과 같다.
+@Component
+@ConditionalOnProperty(name = "custom.post.search.engine", havingValue = "ngram", matchIfMissing = true)
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class NgramPostSearchEngine implements PostSearchEngine {
+    private static final String FIELD_NAME_TITLE = "title";
+    private static final String FIELD_NAME_BODY = "body";
+    private static final int REINDEX_CHUNK_SIZE = 500;
+
+    private final PostSearchGramRepository postSearchGramRepository;
+    private final JPAQueryFactory jpaQueryFactory;
+    private final PlatformTransactionManager transactionManager;
+    private final LikePostSearchEngine likePostSearchEngine = new LikePostSearchEngine();
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Predicate createKeywordFilter(KwTypeV1 kwType, String kw) {
+        Set<String> grams = toGrams(kw);
+
+        // 한 글자 검색어는 gram 이 없으므로 색인을 쓸 수 없다.
+        if (grams.isEmpty()) return likePostSearchEngine.createKeywordFilter(kwType, kw);
+
+        return switch (kwType) {
+            case TITLE -> matchesAllGrams(grams, FIELD_NAME_TITLE)
+                    .and(post.title.containsIgnoreCase(kw));
+            case BODY -> matchesAllGrams(grams, FIELD_NAME_BODY)
+                    .and(post.detailBody.val.containsIgnoreCase(kw));
+            // 닉네임은 회원 테이블에 있고 언제든 바뀔 수 있으므로 색인하지 않는다.
+            case NAME -> post.author.nickname.containsIgnoreCase(kw);
+            default -> matchesAllGrams(grams, FIELD_NAME_TITLE, FIELD_NAME_BODY)
+                    .and(
+                            post.title.containsIgnoreCase(kw)
+                                    .or(post.detailBody.val.containsIgnoreCase(kw))
+                    )
+                    .or(post.author.nickname.containsIgnoreCase(kw));
+        };
+    }
+
+    // 검색어의 모든 gram 을 같은 필드에 가지고 있는 글
+    private BooleanExpression matchesAllGrams(Set<String> grams, String... fieldNames) {
+        return post.id.in(
+                JPAExpressions
+                        .select(postSearchGram.id.post.id)
+                        .from(postSearchGram)
+                        .where(
+                                postSearchGram.id.fieldName.in(fieldNames),
+                                postSearchGram.id.gram.in(grams)
+                        )
+                        .groupBy(postSearchGram.id.post.id, postSearchGram.id.fieldName)
+                        .having(postSearchGram.id.gram.count().eq((long) grams.size()))
+        );
+    }
+
+    @Override
+    @Transactional
+    public void index(Post post) {
+        indexField(post, FIELD_NAME_TITLE, post.getTitle());
+        indexField(post, FIELD_NAME_BODY, post.getDetailBody() == null ? null : post.getDetailBody().getVal());
+    }
+
+    // 이미 색인된 gram 과 비교해서 바뀐 부분만 반영한다.
+    private void indexField(Post post, String fieldName, String text) {
+        Set<String> grams = toGrams(text);
+        Set<String> indexedGrams = new HashSet<>(postSearchGramRepository.findGramsByPostAndFieldName(post, fieldName));
+
+        List<String> removedGrams = indexedGrams
+                .stream()
+                .filter(it -> !grams.contains(it))
+                .toList();
+
+        if (!removedGrams.isEmpty()) {
+            postSearchGramRepository.deleteByPostAndFieldNameAndGramIn(post, fieldName, removedGrams);
+        }
+
+        grams
+                .stream()
+                .filter(it -> !indexedGrams.contains(it))
+                .forEach(gram -> entityManager.persist(
+                        PostSearchGram.builder()
+                                .post(post)
+                                .fieldName(fieldName)
+                                .gram(gram)
+                                .build()
+                ));
+    }
+
+    @Override
+    @Transactional
+    public void remove(Post post) {
+        postSearchGramRepository.deleteByPost(post);
+    }
+
+    // 색인이 도입되기 전에 작성된 글들을 색인한다.
+    // 글이 많아도 메모리를 다 쓰지 않도록 id 순으로 REINDEX_CHUNK_SIZE 개씩, 각각 별도의 트랜잭션에서 색인한다.
+    // 청크마다 커밋하므로, 전체를 감싸는 트랜잭션(클래스의 readOnly 포함)은 열지 않는다.
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void reindexAllIfEmpty() {
+        if (postSearchGramRepository.count() > 0) return;
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        long lastId = 0;
+
+        while (true) {
+            long afterId = lastId;
+
+            Long chunkLastId = transactionTemplate.execute(status -> reindexChunk(afterId));
+
+            if (chunkLastId == null) break;
+
+            lastId = chunkLastId;
+        }
+    }
+
+    // 색인한 마지막 글의 id, 더 이상 글이 없으면 null
+    private Long reindexChunk(long afterId) {
+        List<Post> posts = jpaQueryFactory
+                .selectFrom(post)
+                .leftJoin(post.detailBody).fetchJoin()
+                .where(post.id.gt(afterId))
+                .orderBy(post.id.asc())
+                .limit(REINDEX_CHUNK_SIZE)
+                .fetch();
+
+        if (posts.isEmpty()) return null;
+
+        posts.forEach(this::index);
+
+        long lastId = posts.get(posts.size() - 1).getId();
+
+        entityManager.flush();
+        entityManager.clear();
+
+        return lastId;
+    }
+
+    static Set<String> toGrams(String text) {
+        Set<String> grams = new HashSet<>();
+
+        if (text == null) return grams;
+
+        int[] codePoints = text.toLowerCase(Locale.ROOT).codePoints().toArray();
+
+        for (int i = 0; i + 1 < codePoints.length; i++) {
+            if (Character.isWhitespace(codePoints[i]) || Character.isWhitespace(codePoints[i + 1])) continue;
+
+            grams.add(new String(codePoints, i, 2));
+        }
+
+        return grams;
+    }
+}
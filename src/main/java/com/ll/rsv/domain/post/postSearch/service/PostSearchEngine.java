@@ -0,0 +1,15 @@
+package com.ll.rsv.domain.post.postSearch.service;
+
+import com.ll.rsv.domain.post.post.entity.Post;
+import com.ll.rsv.standard.base.KwTypeV1;
+import com.querydsl.core.types.Predicate;
+
+public interface PostSearchEngine {
+    Predicate createKeywordFilter(KwTypeV1 kwType, String kw);
+
+    void index(Post post);
+
+    void remove(Post post);
+
+    void reindexAllIfEmpty();
+}
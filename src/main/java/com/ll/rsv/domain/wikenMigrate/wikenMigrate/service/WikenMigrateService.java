@@ -3,6 +3,7 @@ package com.ll.rsv.domain.wikenMigrate.wikenMigrate.service;
 import com.ll.rsv.domain.member.member.entity.Member;
 import com.ll.rsv.domain.member.member.service.MemberService;
 import com.ll.rsv.domain.post.post.entity.Post;
+import com.ll.rsv.domain.post.post.repository.PostCountCache;
 import com.ll.rsv.domain.wikenMigrate.wikenMigrate.repository.WikenMigratePostRepository;
 import com.ll.rsv.global.exceptions.GlobalException;
 import com.ll.rsv.global.rsData.RsData;
@@ -21,6 +22,7 @@ public class WikenMigrateService {
     private final PasswordEncoder passwordEncoder;
     private final MemberService memberService;
     private final WikenMigratePostRepository wikenMigrateRepository;
+    private final PostCountCache postCountCache;
 
     @Transactional
     public RsData<Empty> migrate(Member actor, String username, String password) {
@@ -37,6 +39,8 @@ public class WikenMigrateService {
             post.setAuthor(actor);
         });
 
+        postCountCache.invalidateAll();
+
         return RsData.of("총 %d개의 글이 복구되었습니다.".formatted(posts.size()));
     }
 }
@@ -1,10 +1,15 @@
 package com.ll.rsv.global.exceptionHandlers;
 
+import com.ll.rsv.global.app.AppConfig;
 import com.ll.rsv.global.exceptions.GlobalException;
 import com.ll.rsv.global.rq.Rq;
 import com.ll.rsv.global.rsData.RsData;
 import com.ll.rsv.standard.base.Empty;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.connector.ClientAbortException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -12,27 +17,62 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 @ControllerAdvice
+@Slf4j
 @RequiredArgsConstructor
 public class GlobalExceptionHandler {
     private final Rq rq;
 
+    @Value("${custom.exception.traceSampleRate}")
+    private double traceSampleRate;
+
+    // 클라이언트가 먼저 연결을 끊은 경우, 응답을 보낼 곳이 없으므로 아무것도 쓰지 않는다.
+    @ExceptionHandler(ClientAbortException.class)
+    public void handleClientAbort(Exception ex) {
+        log.debug("Client aborted : %s".formatted(ex.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Object> handleException(Exception ex) {
+    public ResponseEntity<Object> handleException(Exception ex, HttpServletResponse response) {
         // 어짜피 이 서버(스프링부트)를 API서버로만 이용할 것이므로 이 코드는 필요 없다.
         // 그리고 isApi 의 로직은 조금 더 보강을 해야 한다.
         // if (!rq.isApi()) throw ex;
 
+        // 다른 예외로 감싸져서 오는 경우
+        if (isClientAborted(ex)) {
+            handleClientAbort(ex);
+            return null;
+        }
+
+        // 이미 응답을 보내기 시작했으면 에러 응답으로 바꿀 수 없다.
+        if (response.isCommitted()) {
+            log.error("Unhandled exception after response committed", ex);
+            return null;
+        }
+
         return handleApiException(ex);
     }
 
+    private boolean isClientAborted(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ClientAbortException) return true;
+
+            if (cause instanceof IOException && cause.getMessage() != null && cause.getMessage().toLowerCase().contains("broken pipe"))
+                return true;
+        }
+
+        return false;
+    }
+
     // 자연스럽게 발생시킨 예외처리
     private ResponseEntity<Object> handleApiException(Exception ex) {
         Map<String, Object> body = new LinkedHashMap<>();
@@ -43,10 +83,14 @@ public class GlobalExceptionHandler {
         LinkedHashMap<String, Object> data = new LinkedHashMap<>();
         body.put("data", data);
 
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        ex.printStackTrace(pw);
-        data.put("trace", sw.toString().replace("\t", "    ").split("\\r\\n"));
+        log.error("Unhandled exception", ex);
+
+        if (isTraceIncluded()) {
+            StringWriter sw = new StringWriter();
+            PrintWriter pw = new PrintWriter(sw);
+            ex.printStackTrace(pw);
+            data.put("trace", sw.toString().replace("\t", "    ").split("\\R"));
+        }
 
         String path = rq.getCurrentUrlPath();
         data.put("path", path);
@@ -57,6 +101,13 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    // 운영환경에서는 응답에 스택트레이스를 넣지 않는다, 필요하면 일부 요청에만 넣는다.
+    private boolean isTraceIncluded() {
+        if (!AppConfig.isProd()) return true;
+
+        return traceSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < traceSampleRate;
+    }
+
     // 개발자가 명시적으로 발생시킨 예외처리
     @ExceptionHandler(GlobalException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST) // 참고로 이 코드의 역할은 error 내용의 스키마를 타입스크립트화 하는데 있다.
@@ -4,6 +4,7 @@ import com.ll.rsv.global.rsData.RsData;
 import com.ll.rsv.standard.base.Empty;
 import lombok.Getter;
 
+// 없는 데이터, 권한 없음 등 정상적인 흐름에서 던지는 예외이므로 스택트레이스를 만들지 않는다.
 @Getter
 public class GlobalException extends RuntimeException {
     private final RsData<Empty> rsData;
@@ -17,13 +18,36 @@ public class GlobalException extends RuntimeException {
     }
 
     public GlobalException(String resultCode, String msg) {
-        super("resultCode=" + resultCode + ",msg=" + msg);
-        this.rsData = RsData.of(resultCode, msg);
+        this(RsData.of(resultCode, msg));
+    }
+
+    protected GlobalException(RsData<Empty> rsData) {
+        super("resultCode=" + rsData.getResultCode() + ",msg=" + rsData.getMsg(), null, false, false);
+        this.rsData = rsData;
     }
 
     public static class E404 extends GlobalException {
+        private static final RsData<Empty> RS_DATA = RsData.of("404-0", "데이터를 찾을 수 없습니다.");
+
         public E404() {
-            super("404-0", "데이터를 찾을 수 없습니다.");
+            super(RS_DATA);
+        }
+    }
+
+    public static class E403 extends GlobalException {
+        private static final RsData<Empty> RS_DATA = RsData.of("403-1", "권한이 없습니다.");
+
+        public E403() {
+            super(RS_DATA);
+        }
+    }
+
+    // 본문을 다시 받아갈 필요가 없을 때, 폴링마다 발생하므로 미리 만들어둔 응답을 쓴다.
+    public static class E400NotModified extends GlobalException {
+        private static final RsData<Empty> RS_DATA = RsData.of("400-1", "변경사항이 없습니다.");
+
+        public E400NotModified() {
+            super(RS_DATA);
         }
     }
 }
@@ -2,7 +2,9 @@ package com.ll.rsv.global.initData;
 
 import com.ll.rsv.domain.member.member.entity.Member;
 import com.ll.rsv.domain.member.member.service.MemberService;
+import com.ll.rsv.domain.post.postSearch.service.PostSearchEngine;
 import com.ll.rsv.global.app.AppConfig;
+import com.ll.rsv.global.jpa.IdSequenceAligner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,6 +22,8 @@ import java.io.File;
 @RequiredArgsConstructor
 public class All {
     private final MemberService memberService;
+    private final PostSearchEngine postSearchEngine;
+    private final IdSequenceAligner idSequenceAligner;
 
     @Value("${custom.prod.members.system.password}")
     private String prodMemberSystemPassword;
@@ -30,6 +34,17 @@ public class All {
     @Value("${custom.prod.members.garage.password}")
     private String prodMemberGaragePassword;
 
+    @Bean
+    @Order(1)
+    public ApplicationRunner initIdSequences() {
+        return new ApplicationRunner() {
+            @Override
+            public void run(ApplicationArguments args) {
+                idSequenceAligner.align();
+            }
+        };
+    }
+
     @Bean
     @Order(2)
     public ApplicationRunner initAll() {
@@ -39,6 +54,8 @@ public class All {
             public void run(ApplicationArguments args) throws Exception {
                 new File(AppConfig.getTempDirPath()).mkdirs();
 
+                postSearchEngine.reindexAllIfEmpty();
+
                 if (memberService.findByUsername("system").isPresent()) return;
 
                 String memberSystemPassword = AppConfig.isProd() ? prodMemberSystemPassword : "1234";
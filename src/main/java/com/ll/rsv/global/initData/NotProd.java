@@ -5,6 +5,7 @@ import com.ll.rsv.domain.member.member.service.MemberService;
 import com.ll.rsv.domain.post.post.entity.Post;
 import com.ll.rsv.domain.post.post.service.PostService;
 import com.ll.rsv.domain.post.postComment.entity.PostComment;
+import com.ll.rsv.domain.post.postComment.service.PostCommentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.ApplicationArguments;
@@ -24,6 +25,7 @@ import java.util.stream.IntStream;
 public class NotProd {
     private final MemberService memberService;
     private final PostService postService;
+    private final PostCommentService postCommentService;
 
     @Bean
     @Order(3)
@@ -48,26 +50,26 @@ public class NotProd {
 
                 Post post1 = postService.write(memberUser1, "제목 1", "내용 1", true, true);
 
-                post1.addLike(memberUser1);
-                post1.addLike(memberUser2);
-                post1.addLike(memberUser3);
-                post1.addLike(memberUser4);
-
-                PostComment postComment1 = post1.addComment(memberUser1, "댓글 1");
-                PostComment postComment2 = post1.addComment(memberUser1, "댓글 2");
-                PostComment postComment3 = post1.addComment(memberUser1, "댓글 3");
-                PostComment postComment4 = post1.addComment(memberUser1, "댓글 4");
-                PostComment postComment5 = post1.addComment(memberUser2, "댓글 5");
-                PostComment postComment6 = post1.addComment(memberUser2, "댓글 6");
-                PostComment postComment7 = post1.addComment(memberUser2, "댓글 7");
-                PostComment postComment8 = post1.addComment(memberUser3, "댓글 8");
-                PostComment postComment9 = post1.addComment(memberUser3, "댓글 9");
-                PostComment postComment10 = post1.addComment(memberUser4, "댓글 10");
-
-                postComment10.addComment(memberUser1, "답글 1");
-                postComment10.addComment(memberUser1, "답글 2");
-                postComment10.addComment(memberUser2, "답글 3");
-                postComment10.addComment(memberUser2, "답글 4");
+                postService.like(memberUser1, post1);
+                postService.like(memberUser2, post1);
+                postService.like(memberUser3, post1);
+                postService.like(memberUser4, post1);
+
+                PostComment postComment1 = postCommentService.write(memberUser1, post1, null, "댓글 1", true);
+                PostComment postComment2 = postCommentService.write(memberUser1, post1, null, "댓글 2", true);
+                PostComment postComment3 = postCommentService.write(memberUser1, post1, null, "댓글 3", true);
+                PostComment postComment4 = postCommentService.write(memberUser1, post1, null, "댓글 4", true);
+                PostComment postComment5 = postCommentService.write(memberUser2, post1, null, "댓글 5", true);
+                PostComment postComment6 = postCommentService.write(memberUser2, post1, null, "댓글 6", true);
+                PostComment postComment7 = postCommentService.write(memberUser2, post1, null, "댓글 7", true);
+                PostComment postComment8 = postCommentService.write(memberUser3, post1, null, "댓글 8", true);
+                PostComment postComment9 = postCommentService.write(memberUser3, post1, null, "댓글 9", true);
+                PostComment postComment10 = postCommentService.write(memberUser4, post1, null, "댓글 10", true);
+
+                postCommentService.write(memberUser1, post1, postComment10, "답글 1", true);
+                postCommentService.write(memberUser1, post1, postComment10, "답글 2", true);
+                postCommentService.write(memberUser2, post1, postComment10, "답글 3", true);
+                postCommentService.write(memberUser2, post1, postComment10, "답글 4", true);
 
                 post1.addTag("자바");
                 post1.addTag("스프링");
@@ -75,33 +77,33 @@ public class NotProd {
 
                 Post post2 = postService.write(memberUser1, "제목 2", "내용 2", true, true);
 
-                post2.addLike(memberUser1);
-                post2.addLike(memberUser2);
-                post2.addLike(memberUser3);
+                postService.like(memberUser1, post2);
+                postService.like(memberUser2, post2);
+                postService.like(memberUser3, post2);
 
-                post2.addComment(memberUser1, "# 댓글 11");
-                post2.addComment(memberUser1, "## 댓글 12");
-                post2.addComment(memberUser1, "`댓글 13`");
-                post2.addComment(memberUser2, """
+                postCommentService.write(memberUser1, post2, null, "# 댓글 11", true);
+                postCommentService.write(memberUser1, post2, null, "## 댓글 12", true);
+                postCommentService.write(memberUser1, post2, null, "`댓글 13`", true);
+                postCommentService.write(memberUser2, post2, null, """
                         ```js
                         const title = '댓글 14';
                         ```
-                        """.stripIndent().trim());
-                post2.addComment(memberUser2, "댓글 15");
-                post2.addComment(memberUser3, "댓글 16");
+                        """.stripIndent().trim(), true);
+                postCommentService.write(memberUser2, post2, null, "댓글 15", true);
+                postCommentService.write(memberUser3, post2, null, "댓글 16", true);
 
                 post2.addTag("DB");
                 post2.addTag("JPA");
 
                 Post post3 = postService.write(memberUser1, "제목 3", "내용 3", false, true);
-                post3.addLike(memberUser1);
-                post3.addLike(memberUser2);
+                postService.like(memberUser1, post3);
+                postService.like(memberUser2, post3);
 
                 post3.addTag("코틀린");
                 post3.addTag("코프링");
 
                 Post post4 = postService.write(memberUser1, "제목 4", "내용 4", true, true);
-                post4.addLike(memberUser1);
+                postService.like(memberUser1, post4);
 
                 post4.addTag("코틀린");
                 post4.addTag("코프링");
@@ -0,0 +1,48 @@
+package com.ll.rsv.global.jpa;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// IDENTITY 로 쌓인 기존 데이터가 있는 테이블은, 새로 만들어진 시퀀스가 1부터 시작해서 id 가 겹친다.
+// 시퀀스의 다음 값이 테이블의 최대 id 이하이면 최대 id 다음부터 시작하도록 맞춘다.
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class IdSequenceAligner {
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    public void align() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (!(persister.getIdentifierGenerator() instanceof SequenceStyleGenerator generator)) return;
+            if (!(persister instanceof AbstractEntityPersister entityPersister)) return;
+
+            String sequenceName = generator.getDatabaseStructure().getPhysicalName().render();
+            String tableName = entityPersister.getTableName();
+            String idColumnName = entityPersister.getIdentifierColumnNames()[0];
+
+            Long maxId = jdbcTemplate.queryForObject("select max(%s) from %s".formatted(idColumnName, tableName), Long.class);
+
+            if (maxId == null) return;
+
+            // pooled-lo 이므로 다음 값부터 increment 만큼이 할당된다.
+            Long nextValue = jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(sequenceName), Long.class);
+
+            if (nextValue != null && nextValue > maxId) return;
+
+            jdbcTemplate.execute("alter sequence %s restart with %d".formatted(sequenceName, maxId + 1));
+
+            log.info("Restarted %s with %d".formatted(sequenceName, maxId + 1));
+        });
+    }
+}
@@ -7,14 +7,16 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import org.springframework.data.domain.Persistable;
 
-import static jakarta.persistence.GenerationType.IDENTITY;
+import static jakarta.persistence.GenerationType.SEQUENCE;
 
 @MappedSuperclass
 @Getter
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public abstract class BaseEntity implements Persistable<Long> {
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    // IDENTITY 는 insert 를 해야 id 를 알 수 있어서 배치 insert 가 되지 않는다.
+    // 엔티티마다 <테이블>_seq 시퀀스를 사용한다, 기존 데이터와의 정렬은 IdSequenceAligner 참고
+    @GeneratedValue(strategy = SEQUENCE)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -24,7 +26,11 @@ public abstract class BaseEntity implements Persistable<Long> {
     }
 
     public String getModelName() {
-        String simpleName = this.getClass().getSimpleName();
+        return getModelName(this.getClass());
+    }
+
+    public static String getModelName(Class<? extends BaseEntity> entityClass) {
+        String simpleName = entityClass.getSimpleName();
         return Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1);
     }
 }
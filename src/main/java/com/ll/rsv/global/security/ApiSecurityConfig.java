@@ -25,7 +25,9 @@ public class ApiSecurityConfig {
                 .securityMatcher("/api/**")
                 .authorizeRequests(
                         authorizeRequests -> authorizeRequests
-                                .requestMatchers(HttpMethod.GET, "/api/*/posts/{id:\\d+}", "/api/*/posts", "/api/*/postComments/{id:\\d+}")
+                                .requestMatchers(HttpMethod.GET, "/api/*/posts/{id:\\d+}", "/api/*/posts", "/api/*/posts/cursor", "/api/*/postComments/{id:\\d+}")
+                                .permitAll()
+                                .requestMatchers(HttpMethod.GET, "/api/*/postComments/{postId:\\d+}/tree", "/api/*/postComments/{postId:\\d+}/cursor", "/api/*/postComments/{postId:\\d+}/{postCommentId:\\d+}/children/cursor")
                                 .permitAll()
                                 .requestMatchers("/api/*/members/login", "/api/*/members/logout")
                                 .permitAll()
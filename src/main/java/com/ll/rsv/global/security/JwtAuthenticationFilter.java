@@ -43,14 +43,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             // 엑세스 토큰이 존재하면
             if (!accessToken.isBlank()) {
-                // 유효성 체크하여 만료되었으면 리프레시 토큰으로 새로운 엑세스 토큰을 발급받고 응답헤더에 추가
-                if (!memberService.validateToken(accessToken)) {
+                // 유효성 체크와 파싱을 한번에 하고, 만료되었으면 리프레시 토큰으로 새로운 엑세스 토큰을 발급받고 응답헤더에 추가
+                SecurityUser securityUser = memberService.findUserFromAccessToken(accessToken).orElse(null);
+
+                if (securityUser == null) {
                     RsData<String> rs = memberService.refreshAccessToken(refreshToken);
                     accessToken = rs.getData();
                     rq.setHeader("Authorization", "Bearer " + refreshToken + " " + accessToken);
+
+                    securityUser = memberService.getUserFromAccessToken(accessToken);
                 }
 
-                SecurityUser securityUser = memberService.getUserFromAccessToken(accessToken);
                 // 세션에 로그인하는 것이 아닌 1회성(이번 요청/응답 생명주기에서만 인정됨)으로 로그인 처리
                 // API 요청은, 로그인이 필요하다면 이렇게 매번 요청마다 로그인 처리가 되어야 하는게 맞다.
                 rq.setLogin(securityUser);
@@ -61,16 +64,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             // 엑세스 토큰이 존재하면
             if (!accessToken.isBlank()) {
-                // 유효성 체크하여 만료되었으면 리프레시 토큰으로 새로운 엑세스 토큰을 발급받고 응답쿠키에 추가
-                if (!memberService.validateToken(accessToken)) {
+                // 유효성 체크와 파싱을 한번에 하고, 만료되었으면 리프레시 토큰으로 새로운 엑세스 토큰을 발급받고 응답쿠키에 추가
+                SecurityUser securityUser = memberService.findUserFromAccessToken(accessToken).orElse(null);
+
+                if (securityUser == null) {
                     String refreshToken = rq.getCookieValue("refreshToken", "");
 
                     RsData<String> rs = memberService.refreshAccessToken(refreshToken);
                     accessToken = rs.getData();
                     rq.setCrossDomainCookie("accessToken", accessToken);
+
+                    securityUser = memberService.getUserFromAccessToken(accessToken);
                 }
 
-                SecurityUser securityUser = memberService.getUserFromAccessToken(accessToken);
                 // 세션에 로그인하는 것이 아닌 1회성(이번 요청/응답 생명주기에서만 인정됨)으로 로그인 처리
                 // API 요청은, 로그인이 필요하다면 이렇게 매번 요청마다 로그인 처리가 되어야 하는게 맞다.
                 rq.setLogin(securityUser);
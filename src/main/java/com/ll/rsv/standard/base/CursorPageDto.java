@@ -0,0 +1,26 @@
+package com.ll.rsv.standard.base;
+
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+
+@Getter
+public class CursorPageDto<T> {
+    @NonNull
+    private long pageElementsCount;
+    @NonNull
+    private boolean hasNext;
+    // 다음 페이지를 요청할 때 after 로 넘기는 값, 다음 페이지가 없으면 null
+    private Long nextCursor;
+    @NonNull
+    private List<T> content;
+
+    public CursorPageDto(Slice<T> slice, Long nextCursor) {
+        this.pageElementsCount = slice.getNumberOfElements();
+        this.hasNext = slice.hasNext();
+        this.nextCursor = slice.hasNext() ? nextCursor : null;
+        this.content = slice.getContent();
+    }
+}
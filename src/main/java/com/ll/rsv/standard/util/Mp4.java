@@ -0,0 +1,306 @@
+package com.ll.rsv.standard.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// MP4(ISO BMFF) 파일의 moov 를 첫 mdat 앞으로 옮긴다(faststart), ffmpeg 의 -movflags faststart 와 같다.
+// moov 가 뒤에 있으면 플레이어가 재생 전에 파일 끝부분을 먼저 받아야 한다.
+public class Mp4 {
+    private Mp4() {
+    }
+
+    // moov 는 메모리에 올려서 수정하므로 너무 크면 처리하지 않는다.
+    private static final long MAX_MOOV_SIZE = 64 * 1024 * 1024;
+    // stco/co64 를 찾기 위해 들어가야 하는 box 들
+    private static final Set<String> CONTAINER_TYPES = Set.of("moov", "trak", "mdia", "minf", "stbl");
+
+    public record Info(Long durationMs, Integer width, Integer height, String codec) {
+    }
+
+    public record Result(boolean relocated, Info info) {
+    }
+
+    public static class UnsupportedMp4Exception extends RuntimeException {
+        public UnsupportedMp4Exception(String msg) {
+            super(msg);
+        }
+    }
+
+    private record Box(String type, long offset, long size, int headerSize) {
+    }
+
+    // moov 가 이미 mdat 앞에 있으면 target 에 쓰지 않고 relocated = false
+    public static Result faststart(Path source, Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            List<Box> boxes = readTopLevelBoxes(in);
+
+            Box moov = boxes.stream().filter(box -> box.type().equals("moov")).findFirst()
+                    .orElseThrow(() -> new UnsupportedMp4Exception("moov 가 없습니다."));
+            Box firstMdat = boxes.stream().filter(box -> box.type().equals("mdat")).findFirst()
+                    .orElseThrow(() -> new UnsupportedMp4Exception("mdat 이 없습니다."));
+
+            // fragmented MP4 는 offset 이 moof 기준이라 이 방식으로 옮길 수 없다.
+            if (boxes.stream().anyMatch(box -> box.type().equals("moof")))
+                throw new UnsupportedMp4Exception("fragmented MP4 는 지원하지 않습니다.");
+
+            if (moov.size() > MAX_MOOV_SIZE) throw new UnsupportedMp4Exception("moov 가 너무 큽니다.");
+
+            ByteBuffer moovBuffer = ByteBuffer.allocate((int) moov.size());
+            readFully(in, moovBuffer, moov.offset());
+
+            Info info = readInfo(moovBuffer, moov.headerSize());
+
+            if (moov.offset() < firstMdat.offset()) return new Result(false, info);
+
+            // 첫 mdat 부터 원래 moov 위치 사이의 데이터는 moov 크기만큼 뒤로 밀린다.
+            shiftChunkOffsets(moovBuffer, moov.headerSize(), (int) moov.size(), firstMdat.offset(), moov.offset(), moov.size());
+
+            try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (Box box : boxes) {
+                    if (box.equals(moov)) continue;
+
+                    if (box.equals(firstMdat)) writeFully(out, moovBuffer.clear());
+
+                    transferFully(in, box.offset(), box.size(), out);
+                }
+            }
+
+            return new Result(true, info);
+        }
+    }
+
+    private static List<Box> readTopLevelBoxes(FileChannel channel) throws IOException {
+        List<Box> boxes = new ArrayList<>();
+        long fileSize = channel.size();
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(16);
+
+        while (offset < fileSize) {
+            if (offset + 8 > fileSize) throw new UnsupportedMp4Exception("파일 끝에 알 수 없는 데이터가 있습니다.");
+
+            readFully(channel, header.clear().limit(8), offset);
+
+            long size = Integer.toUnsignedLong(header.getInt(0));
+            String type = new String(header.array(), 4, 4, StandardCharsets.ISO_8859_1);
+            int headerSize = 8;
+
+            if (size == 1) {
+                readFully(channel, header.clear().limit(8), offset + 8);
+                size = header.getLong(0);
+                headerSize = 16;
+            } else if (size == 0) {
+                size = fileSize - offset;
+            }
+
+            if (size < headerSize || offset + size > fileSize)
+                throw new UnsupportedMp4Exception("%s box 의 크기가 올바르지 않습니다.".formatted(type));
+
+            boxes.add(new Box(type, offset, size, headerSize));
+            offset += size;
+        }
+
+        return boxes;
+    }
+
+    // buffer 의 [start, end) 에 있는 자식 box 들
+    private static List<Box> readChildBoxes(ByteBuffer buffer, int start, int end) {
+        List<Box> boxes = new ArrayList<>();
+        int offset = start;
+
+        while (offset + 8 <= end) {
+            long size = Integer.toUnsignedLong(buffer.getInt(offset));
+            String type = getFourCc(buffer, offset + 4);
+            int headerSize = 8;
+
+            if (size == 1) {
+                size = buffer.getLong(offset + 8);
+                headerSize = 16;
+            } else if (size == 0) {
+                size = end - offset;
+            }
+
+            if (size < headerSize || offset + size > end)
+                throw new UnsupportedMp4Exception("%s box 의 크기가 올바르지 않습니다.".formatted(type));
+
+            boxes.add(new Box(type, offset, size, headerSize));
+            offset += (int) size;
+        }
+
+        return boxes;
+    }
+
+    private static String getFourCc(ByteBuffer buffer, int offset) {
+        byte[] bytes = new byte[4];
+        buffer.get(offset, bytes);
+
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static int payloadStart(Box box) {
+        return (int) box.offset() + box.headerSize();
+    }
+
+    private static int end(Box box) {
+        return (int) (box.offset() + box.size());
+    }
+
+    private static Info readInfo(ByteBuffer moov, int moovHeaderSize) {
+        Long durationMs = null;
+        Integer width = null;
+        Integer height = null;
+        String codec = null;
+
+        for (Box box : readChildBoxes(moov, moovHeaderSize, moov.capacity())) {
+            if (box.type().equals("mvhd")) {
+                durationMs = readDurationMs(moov, payloadStart(box));
+            } else if (box.type().equals("trak") && width == null) {
+                TrackInfo track = readTrackInfo(moov, box);
+
+                if ("vide".equals(track.handlerType())) {
+                    width = track.width();
+                    height = track.height();
+                    codec = track.codec();
+                }
+            }
+        }
+
+        return new Info(durationMs, width, height, codec);
+    }
+
+    private static Long readDurationMs(ByteBuffer buffer, int offset) {
+        int version = buffer.get(offset);
+
+        long timescale;
+        long duration;
+
+        if (version == 1) {
+            timescale = Integer.toUnsignedLong(buffer.getInt(offset + 20));
+            duration = buffer.getLong(offset + 24);
+        } else {
+            timescale = Integer.toUnsignedLong(buffer.getInt(offset + 12));
+            duration = Integer.toUnsignedLong(buffer.getInt(offset + 16));
+        }
+
+        if (timescale == 0) return null;
+
+        return duration * 1000 / timescale;
+    }
+
+    private record TrackInfo(String handlerType, Integer width, Integer height, String codec) {
+    }
+
+    private static TrackInfo readTrackInfo(ByteBuffer buffer, Box trak) {
+        String handlerType = null;
+        Integer width = null;
+        Integer height = null;
+        String codec = null;
+
+        for (Box box : readChildBoxes(buffer, payloadStart(trak), end(trak))) {
+            if (box.type().equals("tkhd")) {
+                // width, height 는 tkhd 의 마지막 8바이트, 16.16 고정소수점
+                width = buffer.getInt(end(box) - 8) >>> 16;
+                height = buffer.getInt(end(box) - 4) >>> 16;
+            } else if (box.type().equals("mdia")) {
+                for (Box mdiaChild : readChildBoxes(buffer, payloadStart(box), end(box))) {
+                    if (mdiaChild.type().equals("hdlr")) {
+                        handlerType = getFourCc(buffer, payloadStart(mdiaChild) + 8);
+                    } else if (mdiaChild.type().equals("minf")) {
+                        codec = readCodec(buffer, mdiaChild);
+                    }
+                }
+            }
+        }
+
+        return new TrackInfo(handlerType, width, height, codec);
+    }
+
+    // minf > stbl > stsd 의 첫번째 sample entry 의 형식(avc1, hvc1 등)
+    private static String readCodec(ByteBuffer buffer, Box minf) {
+        for (Box stbl : readChildBoxes(buffer, payloadStart(minf), end(minf))) {
+            if (!stbl.type().equals("stbl")) continue;
+
+            for (Box stsd : readChildBoxes(buffer, payloadStart(stbl), end(stbl))) {
+                if (!stsd.type().equals("stsd")) continue;
+
+                int entryCount = buffer.getInt(payloadStart(stsd) + 4);
+
+                if (entryCount > 0) return getFourCc(buffer, payloadStart(stsd) + 12);
+            }
+        }
+
+        return null;
+    }
+
+    // from 이상 to 미만의 위치를 가리키는 청크 위치에 delta 를 더한다.
+    private static void shiftChunkOffsets(ByteBuffer buffer, int start, int end, long from, long to, long delta) {
+        for (Box box : readChildBoxes(buffer, start, end)) {
+            if (CONTAINER_TYPES.contains(box.type())) {
+                shiftChunkOffsets(buffer, payloadStart(box), end(box), from, to, delta);
+            } else if (box.type().equals("stco")) {
+                int entryCount = buffer.getInt(payloadStart(box) + 4);
+                int entriesStart = payloadStart(box) + 8;
+
+                for (int i = 0; i < entryCount; i++) {
+                    int position = entriesStart + i * 4;
+                    long chunkOffset = Integer.toUnsignedLong(buffer.getInt(position));
+
+                    if (chunkOffset < from || chunkOffset >= to) continue;
+
+                    chunkOffset += delta;
+
+                    // stco 를 co64 로 바꾸면 moov 크기가 달라지므로 지원하지 않는다.
+                    if (chunkOffset > 0xFFFFFFFFL) throw new UnsupportedMp4Exception("stco 의 범위를 넘습니다.");
+
+                    buffer.putInt(position, (int) chunkOffset);
+                }
+            } else if (box.type().equals("co64")) {
+                int entryCount = buffer.getInt(payloadStart(box) + 4);
+                int entriesStart = payloadStart(box) + 8;
+
+                for (int i = 0; i < entryCount; i++) {
+                    int position = entriesStart + i * 8;
+                    long chunkOffset = buffer.getLong(position);
+
+                    if (chunkOffset < from || chunkOffset >= to) continue;
+
+                    buffer.putLong(position, chunkOffset + delta);
+                }
+            }
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+
+            if (read == -1) throw new EOFException();
+
+            position += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void transferFully(FileChannel in, long position, long count, FileChannel out) throws IOException {
+        while (count > 0) {
+            long transferred = in.transferTo(position, count, out);
+
+            if (transferred <= 0) throw new EOFException();
+
+            position += transferred;
+            count -= transferred;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.ll.rsv.domain.base.genFile.service.GenFileService;
+
+import com.ll.rsv.domain.base.genFile.dto.GenFileSnapshot;
+import com.ll.rsv.global.app.AppConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GenFileSenderTest {
+    private static final int FILE_LENGTH = 100;
+
+    @TempDir
+    Path genFileDir;
+
+    private String oldGenFileDirPath;
+    private GenFileSender genFileSender;
+    private GenFileSnapshot genFile;
+    private File file;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        oldGenFileDirPath = AppConfig.getGenFileDirPath();
+        ReflectionTestUtils.setField(AppConfig.class, "genFileDirPath", genFileDir.toString());
+
+        genFileSender = new GenFileSender();
+        ReflectionTestUtils.setField(genFileSender, "mode", "direct");
+        ReflectionTestUtils.setField(genFileSender, "accelRedirectPrefix", "/internal/gen");
+
+        content = new byte[FILE_LENGTH];
+        for (int i = 0; i < FILE_LENGTH; i++) content[i] = (byte) i;
+
+        file = genFileDir.resolve("post/2024_01_01/file.bin").toFile();
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content);
+
+        genFile = new GenFileSnapshot(
+                1,
+                "file.bin",
+                "origin.bin",
+                "etc",
+                "bin",
+                FILE_LENGTH,
+                "file.bin",
+                file.getPath(),
+                LocalDateTime.now()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(AppConfig.class, "genFileDirPath", oldGenFileDirPath);
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        genFileSender.send(genFile, "", () -> new GenFileVariantService.VariantFile(file, false), request, response);
+
+        return response;
+    }
+
+    private MockHttpServletRequest rangeRequest(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/genFile/download/file.bin");
+        request.addHeader(HttpHeaders.RANGE, range);
+
+        return request;
+    }
+
+    private String getETag() throws Exception {
+        return send(new MockHttpServletRequest("GET", "/genFile/download/file.bin")).getHeader(HttpHeaders.ETAG);
+    }
+
+    @Test
+    @DisplayName("Range 가 없으면 전체를 200 으로 보낸다.")
+    void t1() throws Exception {
+        MockHttpServletResponse response = send(new MockHttpServletRequest("GET", "/genFile/download/file.bin"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getContentLengthLong()).isEqualTo(FILE_LENGTH);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("단일 범위는 206 으로 그 부분만 보낸다.")
+    void t2() throws Exception {
+        MockHttpServletResponse response = send(rangeRequest("bytes=10-19"));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 10-19/100");
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 10, 20));
+    }
+
+    @Test
+    @DisplayName("suffix 범위는 마지막 n 바이트를 보낸다.")
+    void t3() throws Exception {
+        MockHttpServletResponse response = send(rangeRequest("bytes=-5"));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 95-99/100");
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 95, 100));
+    }
+
+    @Test
+    @DisplayName("떨어진 여러 범위는 multipart/byteranges 로 보낸다.")
+    void t4() throws Exception {
+        MockHttpServletResponse response = send(rangeRequest("bytes=50-54,0-4"));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+        assertThat(response.getContentLengthLong()).isEqualTo(response.getContentAsByteArray().length);
+
+        String body = response.getContentAsString();
+
+        // 시작 위치 순으로 정렬된다.
+        assertThat(body.indexOf("Content-Range: bytes 0-4/100")).isLessThan(body.indexOf("Content-Range: bytes 50-54/100"));
+    }
+
+    @Test
+    @DisplayName("겹치거나 맞닿은 범위는 하나로 합친다.")
+    void t5() throws Exception {
+        MockHttpServletResponse response = send(rangeRequest("bytes=5-14,0-9,15-19"));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-19/100");
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 0, 20));
+    }
+
+    @Test
+    @DisplayName("만족하는 범위가 없으면 416 으로 응답한다.")
+    void t6() throws Exception {
+        MockHttpServletResponse response = send(rangeRequest("bytes=200-300"));
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */100");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("범위가 너무 많거나 범위들의 합이 파일보다 크면 전체를 200 으로 보낸다.")
+    void t7() throws Exception {
+        String tooManyRanges = "bytes=" + IntStream.range(0, 17)
+                .mapToObj(i -> (i * 2) + "-" + (i * 2))
+                .collect(Collectors.joining(","));
+
+        MockHttpServletResponse response1 = send(rangeRequest(tooManyRanges));
+
+        assertThat(response1.getStatus()).isEqualTo(200);
+        assertThat(response1.getContentAsByteArray()).isEqualTo(content);
+
+        MockHttpServletResponse response2 = send(rangeRequest("bytes=0-99,0-99"));
+
+        assertThat(response2.getStatus()).isEqualTo(200);
+        assertThat(response2.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("If-Range 가 현재 ETag 와 다르면 전체를 200 으로, 같으면 범위를 206 으로 보낸다.")
+    void t8() throws Exception {
+        String eTag = getETag();
+
+        MockHttpServletRequest mismatchRequest = rangeRequest("bytes=10-19");
+        mismatchRequest.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+        MockHttpServletResponse mismatchResponse = send(mismatchRequest);
+
+        assertThat(mismatchResponse.getStatus()).isEqualTo(200);
+        assertThat(mismatchResponse.getContentAsByteArray()).isEqualTo(content);
+
+        MockHttpServletRequest matchRequest = rangeRequest("bytes=10-19");
+        matchRequest.addHeader(HttpHeaders.IF_RANGE, eTag);
+        MockHttpServletResponse matchResponse = send(matchRequest);
+
+        assertThat(matchResponse.getStatus()).isEqualTo(206);
+        assertThat(matchResponse.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 10-19/100");
+    }
+
+    @Test
+    @DisplayName("If-None-Match 가 현재 ETag 와 같으면 파일을 열지 않고 304 로 응답한다.")
+    void t9() throws Exception {
+        String eTag = getETag();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/genFile/download/file.bin");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        genFileSender.send(genFile, "", () -> {
+            throw new AssertionError("304 인데 파일을 열었습니다.");
+        }, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    @DisplayName("톰캣이 sendfile 을 지원하면 파일 경로와 범위만 넘긴다.")
+    void t10() throws Exception {
+        MockHttpServletRequest request = rangeRequest("bytes=10-19");
+        request.setAttribute("org.apache.tomcat.sendfile.support", true);
+
+        MockHttpServletResponse response = send(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(file.getAbsolutePath());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(10L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(20L);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("x-accel-redirect 모드는 nginx 에게 genFile 폴더 기준 경로만 넘긴다.")
+    void t11() throws Exception {
+        ReflectionTestUtils.setField(genFileSender, "mode", "x-accel-redirect");
+
+        MockHttpServletResponse response = send(new MockHttpServletRequest("GET", "/genFile/download/file.bin"));
+
+        assertThat(response.getHeader("X-Accel-Redirect")).isEqualTo("/internal/gen/post/2024_01_01/file.bin");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("x-sendfile 모드는 파일의 절대경로만 넘긴다.")
+    void t12() throws Exception {
+        ReflectionTestUtils.setField(genFileSender, "mode", "x-sendfile");
+
+        MockHttpServletResponse response = send(new MockHttpServletRequest("GET", "/genFile/download/file.bin"));
+
+        assertThat(response.getHeader("X-Sendfile")).isEqualTo(file.getAbsolutePath());
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("축소본 대신 원본을 보내면 원본의 ETag 와 no-cache 로 보내서, 다음 요청에서 축소본을 다시 만들어보게 한다.")
+    void t13() throws Exception {
+        String eTag = getETag();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        genFileSender.send(genFile, "w640", () -> new GenFileVariantService.VariantFile(file, true), new MockHttpServletRequest("GET", "/genFile/download/file.bin"), response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(eTag);
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+
+        // 원본의 ETag 로 재검증하면 축소본의 ETag 와 다르므로 304 가 아니다.
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/genFile/download/file.bin");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        MockHttpServletResponse retryResponse = new MockHttpServletResponse();
+        genFileSender.send(genFile, "w640", () -> new GenFileVariantService.VariantFile(file, false), request, retryResponse);
+
+        assertThat(retryResponse.getStatus()).isEqualTo(200);
+        assertThat(retryResponse.getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag);
+        assertThat(retryResponse.getHeader(HttpHeaders.CACHE_CONTROL)).contains("immutable");
+    }
+}
@@ -0,0 +1,112 @@
+package com.ll.rsv.domain.base.genFile.service.GenFileService;
+
+import com.ll.rsv.domain.base.genFile.dto.GenFileSnapshot;
+import com.ll.rsv.domain.base.genFile.entity.GenFile.GenFile;
+import com.ll.rsv.domain.base.genFile.entity.GenFile.GenFileDeleteTask;
+import com.ll.rsv.domain.base.genFile.repository.GenFileDeleteTaskRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 다른 스레드의 조회가 커밋 전의 값을 보도록 해야 하므로 테스트 트랜잭션으로 감싸지 않는다.
+@SpringBootTest
+@ActiveProfiles("test")
+public class GenFileServiceTest {
+    @Autowired
+    private GenFileService genFileService;
+    @Autowired
+    private GenFileWriter genFileWriter;
+    @Autowired
+    private GenFileDeleteTaskRepository genFileDeleteTaskRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private GenFile saveGenFile() throws Exception {
+        Path tempFile = Files.createTempFile("genFileServiceTest", ".txt");
+        Files.writeString(tempFile, "내용");
+
+        return transactionTemplate.execute(status ->
+                genFileService.save("post", 1, "attachment", "body", 1, tempFile.toString())
+        );
+    }
+
+    @Test
+    @DisplayName("조회한 GenFile 은 불변 스냅샷으로 캐시된다.")
+    void t1() throws Exception {
+        GenFile genFile = saveGenFile();
+
+        GenFileSnapshot snapshot1 = genFileService.findSnapshotByFileName(genFile.getFileName()).get();
+        GenFileSnapshot snapshot2 = genFileService.findSnapshotByFileName(genFile.getFileName()).get();
+
+        assertThat(snapshot1).isSameAs(snapshot2);
+        assertThat(snapshot1.id()).isEqualTo(genFile.getId());
+        assertThat(snapshot1.filePath()).isEqualTo(genFile.getFilePath());
+
+        transactionTemplate.executeWithoutResult(status -> genFileService.delete(genFileService.findById(genFile.getId()).get()));
+    }
+
+    @Test
+    @DisplayName("삭제가 커밋되기 전에 다른 요청이 다시 캐시한 스냅샷은 커밋 후에 지워진다.")
+    void t2() throws Exception {
+        GenFile genFile = saveGenFile();
+        String fileName = genFile.getFileName();
+
+        genFileService.findSnapshotByFileName(fileName);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            genFileService.delete(genFileService.findById(genFile.getId()).get());
+
+            // 커밋 전, 다른 요청이 아직 남아있는 행을 조회해서 다시 캐시한 상황
+            Optional<GenFileSnapshot> concurrentRead = CompletableFuture
+                    .supplyAsync(() -> genFileService.findSnapshotByFileName(fileName))
+                    .join();
+
+            assertThat(concurrentRead).isPresent();
+        });
+
+        assertThat(genFileService.findSnapshotByFileName(fileName)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("저장에 실패한 파일은 바로 지우지 않고, 같은 내용을 재사용한 다른 업로드가 커밋할 수 있도록 GenFileDeleteWorker 에게 맡긴다.")
+    void t3() {
+        byte[] bytes = ("실패한 업로드 " + System.nanoTime()).getBytes(StandardCharsets.UTF_8);
+
+        GenFileWriter.WrittenFile failedFile = genFileWriter.write("a.txt", new ByteArrayInputStream(bytes));
+        // 같은 내용의 다른 업로드가 이 blob 을 재사용했지만, 아직 GenFile 을 커밋하지 않은 상황
+        GenFileWriter.WrittenFile reusingFile = genFileWriter.write("b.txt", new ByteArrayInputStream(bytes));
+
+        assertThat(reusingFile.getFilePath()).isEqualTo(failedFile.getFilePath());
+
+        genFileService.deleteOnDiskIfUnreferenced(failedFile);
+
+        List<GenFileDeleteTask> tasks = genFileDeleteTaskRepository.findAll().stream()
+                .filter(task -> failedFile.fileHash().equals(task.getFileHash()))
+                .toList();
+
+        assertThat(tasks).hasSize(1);
+        assertThat(tasks.get(0).getFilePath()).isEqualTo(failedFile.getFilePath());
+
+        GenFile genFile = transactionTemplate.execute(status ->
+                genFileService.save("post", 1, "attachment", "body", 2, "b.txt", reusingFile)
+        );
+
+        assertThat(Files.exists(Path.of(genFile.getFilePath()))).isTrue();
+
+        genFileDeleteTaskRepository.deleteAll(tasks);
+        transactionTemplate.executeWithoutResult(status -> genFileService.delete(genFileService.findById(genFile.getId()).get()));
+    }
+}
@@ -0,0 +1,113 @@
+package com.ll.rsv.domain.base.genFile.service.GenFileService;
+
+import com.ll.rsv.global.app.AppConfig;
+import com.ll.rsv.global.exceptions.GlobalException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class GenFileUploadServiceTest {
+    private static final int CHUNK_SIZE = 1024;
+
+    @TempDir
+    Path genFileDir;
+
+    private String oldGenFileDirPath;
+    private GenFileUploadService genFileUploadService;
+
+    @BeforeEach
+    void setUp() {
+        oldGenFileDirPath = AppConfig.getGenFileDirPath();
+        ReflectionTestUtils.setField(AppConfig.class, "genFileDirPath", genFileDir.toString());
+
+        genFileUploadService = new GenFileUploadService(new GenFileWriter());
+        ReflectionTestUtils.setField(genFileUploadService, "chunkSize", DataSize.ofBytes(CHUNK_SIZE));
+        ReflectionTestUtils.setField(genFileUploadService, "maxFileSize", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(genFileUploadService, "sessionExpirationSec", 60L);
+        ReflectionTestUtils.setField(genFileUploadService, "maxSessionsPerMember", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(AppConfig.class, "genFileDirPath", oldGenFileDirPath);
+    }
+
+    private String sha256(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+
+    private void writeChunk(GenFileUploadService.UploadSession session, byte[] content, int chunkIndex) throws Exception {
+        int start = chunkIndex * CHUNK_SIZE;
+        byte[] chunk = Arrays.copyOfRange(content, start, Math.min(start + CHUNK_SIZE, content.length));
+
+        genFileUploadService.writeChunk(session, start, sha256(chunk), new ByteArrayInputStream(chunk));
+    }
+
+    @Test
+    @DisplayName("순서와 상관없이 받은 청크들을 합쳐서 완료한다.")
+    void t1() throws Exception {
+        byte[] content = new byte[CHUNK_SIZE * 2 + 10];
+        Arrays.fill(content, (byte) 7);
+
+        GenFileUploadService.UploadSession session = genFileUploadService.init(1, "owner", "video.mp4", content.length);
+
+        writeChunk(session, content, 2);
+        writeChunk(session, content, 0);
+
+        assertThatThrownBy(() -> genFileUploadService.complete(session)).isInstanceOf(GlobalException.class);
+
+        writeChunk(session, content, 1);
+
+        GenFileWriter.WrittenFile writtenFile = genFileUploadService.complete(session);
+
+        assertThat(writtenFile.fileHash()).isEqualTo(sha256(content));
+        assertThat(Files.readAllBytes(Path.of(writtenFile.getFilePath()))).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("완료가 시작된 세션에는 더 이상 쓸 수 없고, 다시 완료할 수도 없다.")
+    void t2() throws Exception {
+        byte[] content = new byte[10];
+
+        GenFileUploadService.UploadSession session = genFileUploadService.init(1, "owner", "a.bin", content.length);
+        writeChunk(session, content, 0);
+
+        genFileUploadService.complete(session);
+
+        assertThatThrownBy(() -> writeChunk(session, content, 0))
+                .isInstanceOf(GlobalException.class)
+                .extracting(e -> ((GlobalException) e).getRsData().getResultCode())
+                .isEqualTo("400-6");
+
+        assertThatThrownBy(() -> genFileUploadService.complete(session)).isInstanceOf(GlobalException.E404.class);
+    }
+
+    @Test
+    @DisplayName("한 회원이 동시에 열 수 있는 세션 수는 제한된다.")
+    void t3() {
+        genFileUploadService.init(1, "owner1", "a.bin", 10);
+        genFileUploadService.init(1, "owner2", "b.bin", 10);
+
+        assertThatThrownBy(() -> genFileUploadService.init(1, "owner3", "c.bin", 10))
+                .isInstanceOf(GlobalException.class)
+                .extracting(e -> ((GlobalException) e).getRsData().getResultCode())
+                .isEqualTo("400-7");
+
+        // 다른 회원은 상관없다.
+        assertThat(genFileUploadService.init(2, "owner4", "d.bin", 10)).isNotNull();
+    }
+}
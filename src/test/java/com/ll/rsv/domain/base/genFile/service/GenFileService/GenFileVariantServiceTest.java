@@ -0,0 +1,217 @@
+package com.ll.rsv.domain.base.genFile.service.GenFileService;
+
+import com.ll.rsv.domain.base.genFile.dto.GenFileSnapshot;
+import com.ll.rsv.global.app.AppConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class GenFileVariantServiceTest {
+    private static final int SOURCE_WIDTH = 2000;
+    private static final int SOURCE_HEIGHT = 1000;
+
+    @TempDir
+    Path genFileDir;
+
+    private String oldGenFileDirPath;
+    private GenFileVariantService genFileVariantService;
+
+    @BeforeEach
+    void setUp() {
+        oldGenFileDirPath = AppConfig.getGenFileDirPath();
+        ReflectionTestUtils.setField(AppConfig.class, "genFileDirPath", genFileDir.toString());
+
+        genFileVariantService = new GenFileVariantService();
+        ReflectionTestUtils.setField(genFileVariantService, "widths", List.of(640, 320, 1280));
+        ReflectionTestUtils.setField(genFileVariantService, "maxDirSize", DataSize.ofMegabytes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(AppConfig.class, "genFileDirPath", oldGenFileDirPath);
+    }
+
+    private byte[] pngBytes(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+
+        return out.toByteArray();
+    }
+
+    private GenFileSnapshot writeSource(String storedFileName, byte[] content) throws Exception {
+        File file = genFileDir.resolve("blob/ab/cd/" + storedFileName).toFile();
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content);
+
+        return new GenFileSnapshot(
+                1,
+                "file.png",
+                "origin.png",
+                "img",
+                "png",
+                content.length,
+                storedFileName,
+                file.getPath(),
+                LocalDateTime.now()
+        );
+    }
+
+    private Path getVariantPath(GenFileSnapshot genFile, int width) {
+        return ReflectionTestUtils.invokeMethod(genFileVariantService, "getVariantPath", genFile, width);
+    }
+
+    @Test
+    @DisplayName("요청한 너비 이상인 가장 작은 허용 너비로 맞추고, 허용 너비보다 크면 가장 큰 너비로 맞춘다.")
+    void t1() {
+        assertThat(genFileVariantService.getVariantWidth(1)).isEqualTo(320);
+        assertThat(genFileVariantService.getVariantWidth(320)).isEqualTo(320);
+        assertThat(genFileVariantService.getVariantWidth(321)).isEqualTo(640);
+        assertThat(genFileVariantService.getVariantWidth(1000)).isEqualTo(1280);
+        assertThat(genFileVariantService.getVariantWidth(5000)).isEqualTo(1280);
+    }
+
+    @Test
+    @DisplayName("축소본은 한번 만들고, 다음 요청은 만들어둔 파일을 쓴다.")
+    void t2() throws Exception {
+        GenFileSnapshot genFile = writeSource("abcd.png", pngBytes(SOURCE_WIDTH, SOURCE_HEIGHT));
+
+        GenFileVariantService.VariantFile variantFile = genFileVariantService.getVariantFile(genFile, 640);
+
+        assertThat(variantFile.fallback()).isFalse();
+        assertThat(variantFile.file().toPath()).isEqualTo(getVariantPath(genFile, 640));
+
+        BufferedImage image = ImageIO.read(variantFile.file());
+        assertThat(image.getWidth()).isEqualTo(640);
+        assertThat(image.getHeight()).isEqualTo(320);
+
+        long lastModified = variantFile.file().lastModified();
+        Files.setLastModifiedTime(variantFile.file().toPath(), FileTime.fromMillis(lastModified - 60_000));
+
+        GenFileVariantService.VariantFile cachedVariantFile = genFileVariantService.getVariantFile(genFile, 640);
+
+        assertThat(cachedVariantFile.file()).isEqualTo(variantFile.file());
+        // 사용 시각이 갱신된다.
+        assertThat(cachedVariantFile.file().lastModified()).isGreaterThan(lastModified - 60_000);
+    }
+
+    @Test
+    @DisplayName("같은 축소본을 다른 요청이 만드는 중이면, 새로 만들지 않고 그 결과를 기다린다.")
+    void t3() throws Exception {
+        GenFileSnapshot genFile = writeSource("abcd.png", pngBytes(SOURCE_WIDTH, SOURCE_HEIGHT));
+        Path variantPath = getVariantPath(genFile, 640);
+
+        // 다른 요청이 만드는 중인 상태
+        Map<Path, CompletableFuture<GenFileVariantService.VariantFile>> generating =
+                (Map<Path, CompletableFuture<GenFileVariantService.VariantFile>>) ReflectionTestUtils.getField(genFileVariantService, "generating");
+        CompletableFuture<GenFileVariantService.VariantFile> inProgress = new CompletableFuture<>();
+        generating.put(variantPath, inProgress);
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<GenFileVariantService.VariantFile> waiting = executorService.submit(() -> genFileVariantService.getVariantFile(genFile, 640));
+
+            assertThatThrownBy(() -> waiting.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+            GenFileVariantService.VariantFile result = new GenFileVariantService.VariantFile(variantPath.toFile(), false);
+            inProgress.complete(result);
+
+            assertThat(waiting.get(5, TimeUnit.SECONDS)).isSameAs(result);
+            // 기다린 요청은 직접 만들지 않았다.
+            assertThat(variantPath).doesNotExist();
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("원본이 깨져서 축소본을 만들지 못하면 원본을 fallback 으로 돌려주고, 다음 요청에서 다시 만들어본다.")
+    void t4() throws Exception {
+        byte[] content = pngBytes(SOURCE_WIDTH, SOURCE_HEIGHT);
+        // 크기 정보(IHDR)까지만 남기고 자른다.
+        GenFileSnapshot genFile = writeSource("abcd.png", Arrays.copyOf(content, 40));
+
+        GenFileVariantService.VariantFile variantFile = genFileVariantService.getVariantFile(genFile, 640);
+
+        assertThat(variantFile.fallback()).isTrue();
+        assertThat(variantFile.file().getPath()).isEqualTo(genFile.filePath());
+        assertThat(getVariantPath(genFile, 640)).doesNotExist();
+
+        Files.write(Path.of(genFile.filePath()), content);
+
+        GenFileVariantService.VariantFile retriedVariantFile = genFileVariantService.getVariantFile(genFile, 640);
+
+        assertThat(retriedVariantFile.fallback()).isFalse();
+        assertThat(retriedVariantFile.file().toPath()).isEqualTo(getVariantPath(genFile, 640));
+    }
+
+    @Test
+    @DisplayName("원본이 요청한 너비보다 작으면 원본을 그대로 쓰고, fallback 이 아니다.")
+    void t5() throws Exception {
+        GenFileSnapshot genFile = writeSource("abcd.png", pngBytes(200, 100));
+
+        GenFileVariantService.VariantFile variantFile = genFileVariantService.getVariantFile(genFile, 640);
+
+        assertThat(variantFile.fallback()).isFalse();
+        assertThat(variantFile.file().getPath()).isEqualTo(genFile.filePath());
+    }
+
+    @Test
+    @DisplayName("축소본 폴더가 최대 크기를 넘으면, 최대 크기의 90% 이하가 될 때까지 오래 사용되지 않은 것부터 지운다.")
+    void t6() throws Exception {
+        ReflectionTestUtils.setField(genFileVariantService, "maxDirSize", DataSize.ofBytes(1000));
+
+        Path variantDirPath = genFileDir.resolve(GenFileVariantService.VARIANT_DIR).resolve("ab");
+        Files.createDirectories(variantDirPath);
+
+        long now = System.currentTimeMillis();
+        Path[] variantPaths = new Path[5];
+
+        // 400 바이트씩 5개 = 2000 바이트, 0번이 가장 오래 사용되지 않았다.
+        for (int i = 0; i < variantPaths.length; i++) {
+            variantPaths[i] = variantDirPath.resolve("ab_w" + i + ".jpg");
+            Files.write(variantPaths[i], new byte[400]);
+            Files.setLastModifiedTime(variantPaths[i], FileTime.fromMillis(now - (variantPaths.length - i) * 60_000L));
+        }
+
+        genFileVariantService.evict();
+
+        // 900 바이트 이하가 될 때까지 지우므로 3개가 지워진다.
+        assertThat(variantPaths[0]).doesNotExist();
+        assertThat(variantPaths[1]).doesNotExist();
+        assertThat(variantPaths[2]).doesNotExist();
+        assertThat(variantPaths[3]).exists();
+        assertThat(variantPaths[4]).exists();
+
+        // 최대 크기 이하이면 지우지 않는다.
+        genFileVariantService.evict();
+
+        assertThat(variantPaths[3]).exists();
+        assertThat(variantPaths[4]).exists();
+    }
+}
@@ -0,0 +1,133 @@
+package com.ll.rsv.domain.base.genFile.service.GenFileService;
+
+import com.ll.rsv.global.app.AppConfig;
+import com.ll.rsv.global.exceptions.GlobalException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class GenFileWriterTest {
+    @TempDir
+    Path genFileDir;
+
+    private String oldGenFileDirPath;
+    private GenFileWriter genFileWriter;
+
+    @BeforeEach
+    void setUp() {
+        oldGenFileDirPath = AppConfig.getGenFileDirPath();
+        ReflectionTestUtils.setField(AppConfig.class, "genFileDirPath", genFileDir.toString());
+
+        genFileWriter = new GenFileWriter();
+        ReflectionTestUtils.setField(genFileWriter, "maxFileSize", DataSize.ofMegabytes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(AppConfig.class, "genFileDirPath", oldGenFileDirPath);
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+
+        return bytes;
+    }
+
+    private String sha256(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+
+    private long countTempFiles() throws Exception {
+        Path tempDirPath = genFileWriter.getTempDirPath();
+
+        if (!Files.exists(tempDirPath)) return 0;
+
+        try (Stream<Path> paths = Files.list(tempDirPath)) {
+            return paths.count();
+        }
+    }
+
+    @Test
+    @DisplayName("한번 읽으면서 크기와 SHA-256 을 구하고, 해시로 정해진 blob 위치에 쓴다.")
+    void t1() throws Exception {
+        // 버퍼 크기의 배수가 아닌 크기
+        byte[] content = randomBytes(200_001);
+
+        GenFileWriter.WrittenFile writtenFile = genFileWriter.write("video.mp4", new ByteArrayInputStream(content));
+
+        assertThat(writtenFile.fileSize()).isEqualTo(content.length);
+        assertThat(writtenFile.fileHash()).isEqualTo(sha256(content));
+        assertThat(writtenFile.fileExt()).isEqualTo("mp4");
+        assertThat(writtenFile.fileDir()).isEqualTo("blob/" + writtenFile.fileHash().substring(0, 2) + "/" + writtenFile.fileHash().substring(2, 4));
+        assertThat(Files.readAllBytes(Path.of(writtenFile.getFilePath()))).isEqualTo(content);
+        assertThat(countTempFiles()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("같은 내용은 blob 하나를 공유하고, fileName 은 각각 다르다.")
+    void t2() throws Exception {
+        byte[] content = randomBytes(1_000);
+
+        GenFileWriter.WrittenFile writtenFile1 = genFileWriter.write("a.txt", new ByteArrayInputStream(content));
+        GenFileWriter.WrittenFile writtenFile2 = genFileWriter.write("b.txt", new ByteArrayInputStream(content));
+
+        assertThat(writtenFile2.getFilePath()).isEqualTo(writtenFile1.getFilePath());
+        assertThat(writtenFile2.fileName()).isNotEqualTo(writtenFile1.fileName());
+        assertThat(countTempFiles()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("원래 이름에 확장자가 없으면 내용으로 판별한 MIME 타입의 확장자를 사용한다.")
+    void t3() throws Exception {
+        byte[] pngSignature = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 0x0d, 'I', 'H', 'D', 'R'};
+
+        GenFileWriter.WrittenFile writtenFile = genFileWriter.write("image", new ByteArrayInputStream(pngSignature));
+
+        assertThat(writtenFile.mimeType()).isEqualTo("image/png");
+        assertThat(writtenFile.fileExt()).isEqualTo("png");
+        assertThat(writtenFile.fileName()).endsWith(".png");
+    }
+
+    @Test
+    @DisplayName("최대 크기를 넘으면 실패하고 임시파일을 남기지 않는다.")
+    void t4() throws Exception {
+        byte[] content = randomBytes((int) DataSize.ofMegabytes(1).toBytes() + 1);
+
+        assertThatThrownBy(() -> genFileWriter.write("big.bin", new ByteArrayInputStream(content)))
+                .isInstanceOf(GlobalException.class);
+
+        assertThat(countTempFiles()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("임시폴더에 이미 써진 파일도 같은 해시와 크기로 옮긴다.")
+    void t5() throws Exception {
+        byte[] content = randomBytes(70_000);
+        Path tempPath = genFileWriter.getTempDirPath().resolve("upload");
+        Files.createDirectories(tempPath.getParent());
+        Files.write(tempPath, content);
+
+        GenFileWriter.WrittenFile writtenFile = genFileWriter.write("video.mp4", tempPath);
+
+        assertThat(writtenFile.fileSize()).isEqualTo(content.length);
+        assertThat(writtenFile.fileHash()).isEqualTo(sha256(content));
+        assertThat(Files.exists(tempPath)).isFalse();
+        assertThat(Files.readAllBytes(Path.of(writtenFile.getFilePath()))).isEqualTo(content);
+    }
+}
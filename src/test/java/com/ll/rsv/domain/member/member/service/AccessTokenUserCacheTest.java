@@ -0,0 +1,83 @@
+package com.ll.rsv.domain.member.member.service;
+
+import com.ll.rsv.global.security.SecurityUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AccessTokenUserCacheTest {
+    private SimpleMeterRegistry meterRegistry;
+    private AccessTokenUserCache accessTokenUserCache;
+    private final AtomicInteger verificationsCount = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        accessTokenUserCache = new AccessTokenUserCache(meterRegistry);
+        ReflectionTestUtils.setField(accessTokenUserCache, "maxSize", 100L);
+        accessTokenUserCache.init();
+    }
+
+    private Function<String, AccessTokenUserCache.Entry> loader(long expireAtMillis) {
+        return token -> {
+            verificationsCount.incrementAndGet();
+
+            return new AccessTokenUserCache.Entry(
+                    new SecurityUser(1, "user1", "", List.of(new SimpleGrantedAuthority("ROLE_MEMBER"))),
+                    expireAtMillis
+            );
+        };
+    }
+
+    private Function<String, AccessTokenUserCache.Entry> invalidLoader() {
+        return token -> {
+            verificationsCount.incrementAndGet();
+            return null;
+        };
+    }
+
+    @Test
+    @DisplayName("같은 토큰은 한번만 검증한다.")
+    void t1() {
+        long expireAtMillis = System.currentTimeMillis() + 60_000;
+
+        SecurityUser user1 = accessTokenUserCache.get("token1", loader(expireAtMillis));
+        SecurityUser user2 = accessTokenUserCache.get("token1", loader(expireAtMillis));
+
+        assertThat(user1.getId()).isEqualTo(1);
+        assertThat(user2).isSameAs(user1);
+        assertThat(verificationsCount.get()).isEqualTo(1);
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "accessTokenUser").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("유효하지 않은 토큰은 캐시하지 않는다.")
+    void t2() {
+        assertThat(accessTokenUserCache.get("invalid", invalidLoader())).isNull();
+        assertThat(accessTokenUserCache.get("invalid", invalidLoader())).isNull();
+
+        assertThat(verificationsCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("토큰이 만료되면 캐시에서 빠지고 다시 검증한다.")
+    void t3() {
+        long expireAtMillis = System.currentTimeMillis() - 1;
+
+        assertThat(accessTokenUserCache.get("expired", loader(expireAtMillis))).isNull();
+        assertThat(accessTokenUserCache.get("expired", invalidLoader())).isNull();
+
+        assertThat(verificationsCount.get()).isEqualTo(2);
+    }
+}
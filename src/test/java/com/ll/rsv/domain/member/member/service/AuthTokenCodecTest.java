@@ -0,0 +1,97 @@
+package com.ll.rsv.domain.member.member.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AuthTokenCodecTest {
+    private static final String KEY_1 = Base64.getEncoder().encodeToString("abcdefghijklmnopqrstuvwxyz123456".getBytes());
+    private static final String KEY_2 = Base64.getEncoder().encodeToString("654321zyxwvutsrqponmlkjihgfedcba".getBytes());
+
+    private AuthTokenCodec newCodec(String secretKey, String keyId, String oldSecretKeys) {
+        AuthTokenCodec codec = new AuthTokenCodec();
+        ReflectionTestUtils.setField(codec, "secretKey", secretKey);
+        ReflectionTestUtils.setField(codec, "keyId", keyId);
+        ReflectionTestUtils.setField(codec, "oldSecretKeys", oldSecretKeys);
+        codec.init();
+
+        return codec;
+    }
+
+    @Test
+    @DisplayName("발급한 토큰을 다시 읽을 수 있고, 헤더에 kid 가 들어간다.")
+    void t1() {
+        AuthTokenCodec codec = newCodec(KEY_1, "1", "");
+
+        String token = codec.encode(Map.of("id", 1, "username", "user1"), 60);
+        Claims claims = codec.decode(token);
+
+        assertThat(claims.get("id", Integer.class)).isEqualTo(1);
+        assertThat(claims.get("username", String.class)).isEqualTo("user1");
+        assertThat(claims.getExpiration()).isAfter(claims.getIssuedAt());
+
+        String header = new String(Base64.getUrlDecoder().decode(token.split("\\.")[0]));
+        assertThat(header).contains("\"kid\":\"1\"");
+    }
+
+    @Test
+    @DisplayName("키를 교체해도 oldSecretKeys 에 남겨둔 이전 키로 서명된 토큰은 인정된다.")
+    void t2() {
+        AuthTokenCodec oldCodec = newCodec(KEY_1, "1", "");
+        AuthTokenCodec newCodec = newCodec(KEY_2, "2", "1=" + KEY_1);
+
+        String oldToken = oldCodec.encode(Map.of("id", 1), 60);
+        String newToken = newCodec.encode(Map.of("id", 2), 60);
+
+        assertThat(newCodec.decode(oldToken).get("id", Integer.class)).isEqualTo(1);
+        assertThat(newCodec.decode(newToken).get("id", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("이전 키를 지우면 그 키로 서명된 토큰은 거부된다.")
+    void t3() {
+        AuthTokenCodec oldCodec = newCodec(KEY_1, "1", "");
+        AuthTokenCodec newCodec = newCodec(KEY_2, "2", "");
+
+        String oldToken = oldCodec.encode(Map.of("id", 1), 60);
+
+        assertThatThrownBy(() -> newCodec.decode(oldToken)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("kid 가 없는 토큰은 현재 키로 검증한다.")
+    void t4() {
+        AuthTokenCodec codec = newCodec(KEY_1, "1", "");
+
+        String legacyToken = Jwts.builder()
+                .claims(Map.of("id", 1))
+                .signWith(new SecretKeySpec(Decoders.BASE64.decode(KEY_1), "HmacSHA256"), Jwts.SIG.HS256)
+                .compact();
+
+        assertThat(codec.decode(legacyToken).get("id", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("서명이 다르거나 만료된 토큰은 거부된다.")
+    void t5() {
+        AuthTokenCodec codec = newCodec(KEY_1, "1", "");
+        AuthTokenCodec otherCodec = newCodec(KEY_2, "1", "");
+
+        String forgedToken = otherCodec.encode(Map.of("id", 1), 60);
+        String expiredToken = codec.encode(Map.of("id", 1), -1);
+
+        assertThatThrownBy(() -> codec.decode(forgedToken)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> codec.decode(expiredToken)).isInstanceOf(JwtException.class);
+    }
+}
@@ -0,0 +1,126 @@
+package com.ll.rsv.domain.post.post.repository;
+
+import com.ll.rsv.standard.base.KwTypeV1;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class PostCountCacheTest {
+    @Autowired
+    private PostCountCache postCountCache;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final PostCountCache.Key allKey = PostCountCache.Key.of(KwTypeV1.ALL, "", null, true, true);
+    private final PostCountCache.Key kwKey = PostCountCache.Key.of(KwTypeV1.TITLE, "자바", null, true, true);
+
+    private final AtomicInteger countQueriesCount = new AtomicInteger();
+
+    private LongSupplier counter(long count) {
+        return () -> {
+            countQueriesCount.incrementAndGet();
+            return count;
+        };
+    }
+
+    @BeforeEach
+    void setUp() {
+        postCountCache.invalidateAll();
+    }
+
+    @Test
+    @DisplayName("같은 조건의 개수는 캐시에서 가져온다.")
+    void t1() {
+        assertThat(postCountCache.get(allKey, counter(3))).isEqualTo(3);
+        assertThat(postCountCache.get(allKey, counter(4))).isEqualTo(3);
+        assertThat(PostCountCache.Key.of(KwTypeV1.BODY, " ", null, true, true)).isEqualTo(allKey);
+
+        assertThat(countQueriesCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("invalidateAll 은 모든 개수를, invalidateKwCounts 는 검색어가 있는 개수만 지운다.")
+    void t2() {
+        postCountCache.get(allKey, counter(3));
+        postCountCache.get(kwKey, counter(1));
+
+        postCountCache.invalidateKwCounts();
+
+        assertThat(postCountCache.get(allKey, counter(4))).isEqualTo(3);
+        assertThat(postCountCache.get(kwKey, counter(2))).isEqualTo(2);
+
+        postCountCache.invalidateAll();
+
+        assertThat(postCountCache.get(allKey, counter(5))).isEqualTo(5);
+        assertThat(postCountCache.get(kwKey, counter(6))).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("커밋 전에 다시 캐시된 옛날 개수는 커밋 후에 지워진다.")
+    void t3() {
+        postCountCache.get(allKey, counter(3));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            postCountCache.invalidateAll();
+
+            // 커밋 전, 다른 요청이 옛날 개수를 다시 캐시한 상황
+            postCountCache.get(allKey, counter(3));
+        });
+
+        assertThat(postCountCache.get(allKey, counter(4))).isEqualTo(4);
+    }
+
+    private PostCountCache newEstimatingCache(long planRows) {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class)))
+                .thenReturn("[{\"Plan\": {\"Plan Rows\": %d}}]".formatted(planRows));
+
+        PostCountCache cache = new PostCountCache(jdbcTemplate);
+        ReflectionTestUtils.setField(cache, "cacheSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "estimateEnabled", true);
+        ReflectionTestUtils.setField(cache, "estimateThreshold", 1_000L);
+        ReflectionTestUtils.setField(cache, "postgreSql", true);
+        cache.init();
+
+        return cache;
+    }
+
+    @Test
+    @DisplayName("예상 행 수가 threshold 이상이면 count 쿼리 없이 예상 행 수를 사용한다.")
+    void t4() {
+        assertThat(newEstimatingCache(5_000).get(allKey, counter(7))).isEqualTo(5_000);
+
+        assertThat(countQueriesCount.get()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("예상 행 수가 threshold 미만이면 정확한 개수를 구한다.")
+    void t5() {
+        assertThat(newEstimatingCache(500).get(allKey, counter(7))).isEqualTo(7);
+
+        assertThat(countQueriesCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("검색어가 있으면 예상 행 수를 사용하지 않는다.")
+    void t6() {
+        assertThat(newEstimatingCache(5_000).get(kwKey, counter(7))).isEqualTo(7);
+    }
+}
@@ -0,0 +1,175 @@
+package com.ll.rsv.domain.post.post.repository;
+
+import com.ll.rsv.domain.member.member.entity.Member;
+import com.ll.rsv.domain.member.member.service.MemberService;
+import com.ll.rsv.domain.post.post.entity.Post;
+import com.ll.rsv.domain.post.post.service.PostService;
+import com.ll.rsv.domain.post.postComment.entity.PostComment;
+import com.ll.rsv.domain.post.postComment.service.PostCommentService;
+import com.ll.rsv.domain.post.postSearch.service.PostSearchEngine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class PostRepositoryTest {
+    // post 를 참조하는 테이블들
+    private static final List<String> ASSOCIATION_TABLES = List.of("post_detail", "post_like", "post_comment", "post_tag");
+    // 추천, 댓글이 아주 많은 글
+    private static final int LARGE_GRAPH_LIKES_COUNT = 50_000;
+    private static final int LARGE_GRAPH_COMMENTS_COUNT = 10_000;
+    // deleteWithAssociations 가 실행하는 문장 수, 연관 행의 수와 상관없이 같아야 한다.
+    private static final int DELETE_STATEMENTS_COUNT = 7;
+
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostService postService;
+    @Autowired
+    private PostCommentService postCommentService;
+    @Autowired
+    private PostSearchEngine postSearchEngine;
+    @Autowired
+    private MemberService memberService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long countRows(String tableName, long postId) {
+        return jdbcTemplate.queryForObject("select count(*) from %s where post_id = ?".formatted(tableName), Long.class, postId);
+    }
+
+    // 본문, 태그, 추천, 댓글, 답글이 모두 달린 글
+    private Post writePostWithAssociations(String title) {
+        Member author = memberService.findByUsername("user1").get();
+
+        Post post = postService.write(author, title, "내용", true, true);
+        postService.edit(post, title, List.of("태그1", "태그2"), "수정된 내용", true, true);
+
+        postService.like(memberService.findByUsername("user2").get(), post);
+        postService.like(memberService.findByUsername("user3").get(), post);
+
+        PostComment comment = postCommentService.write(author, post, null, "댓글", true);
+        postCommentService.write(author, post, comment, "답글", true);
+        postCommentService.write(author, post, null, "", false);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        return postService.findById(post.getId()).get();
+    }
+
+    // 검색 색인은 검색엔진이 관리하므로, PostService.delete 와 마찬가지로 먼저 지운다.
+    private void delete(Post post) {
+        postSearchEngine.remove(post);
+        postRepository.deleteWithAssociations(post);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // 엔티티를 하나씩 저장하면 오래 걸리므로 SQL 로 한번에 넣는다, id 는 엔티티와 같은 시퀀스에서 받는다.
+    private void addLargeGraph(Post post) {
+        long postId = post.getId();
+        long authorId = post.getAuthor().getId();
+
+        jdbcTemplate.update(
+                "insert into member (id, create_date, modify_date, username, password, nickname) select next value for member_seq, now(), now(), 'liker' || x, '', 'liker' || x from system_range(1, ?)",
+                LARGE_GRAPH_LIKES_COUNT
+        );
+        jdbcTemplate.update("insert into post_like (post_id, member_id) select ?, id from member where username like 'liker%'", postId);
+
+        jdbcTemplate.update(
+                "insert into post_comment (id, create_date, modify_date, post_id, author_id, published, body, children_count) select next value for post_comment_seq, now(), now(), ?, ?, true, '댓글', 0 from system_range(1, ?)",
+                postId, authorId, LARGE_GRAPH_COMMENTS_COUNT
+        );
+
+        // 절반은 첫 댓글의 답글로 만든다.
+        long firstCommentId = jdbcTemplate.queryForObject("select min(id) from post_comment where post_id = ?", Long.class, postId);
+        jdbcTemplate.update("update post_comment set parent_comment_id = ? where post_id = ? and id <> ? and mod(id, 2) = 0", firstCommentId, postId, firstCommentId);
+    }
+
+    private long countDeleteStatements(Post post) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        postSearchEngine.remove(post);
+        entityManager.flush();
+        statistics.clear();
+
+        postRepository.deleteWithAssociations(post);
+        entityManager.flush();
+
+        long statementsCount = statistics.getPrepareStatementCount();
+
+        entityManager.clear();
+
+        return statementsCount;
+    }
+
+    @Test
+    @DisplayName("deleteWithAssociations 는 글을 참조하는 행을 남기지 않는다.")
+    void t1() {
+        Post post = writePostWithAssociations("지울 글");
+        long postId = post.getId();
+
+        ASSOCIATION_TABLES.forEach(tableName -> assertThat(countRows(tableName, postId)).isPositive());
+
+        delete(post);
+
+        ASSOCIATION_TABLES.forEach(tableName -> assertThat(countRows(tableName, postId)).as(tableName).isZero());
+        assertThat(postRepository.findById(postId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("deleteWithAssociations 는 다른 글의 행은 지우지 않는다.")
+    void t2() {
+        Post post = writePostWithAssociations("지울 글");
+        Post otherPost = writePostWithAssociations("남길 글");
+        long otherPostId = otherPost.getId();
+
+        List<Long> countsBefore = ASSOCIATION_TABLES.stream().map(tableName -> countRows(tableName, otherPostId)).toList();
+
+        delete(post);
+
+        List<Long> countsAfter = ASSOCIATION_TABLES.stream().map(tableName -> countRows(tableName, otherPostId)).toList();
+
+        assertThat(countsAfter).isEqualTo(countsBefore);
+        assertThat(postRepository.findById(otherPostId)).isPresent();
+    }
+
+    @Test
+    @DisplayName("추천 50000개, 댓글 10000개인 글도 작은 글과 같은 수의 문장으로 지운다.")
+    void t3() {
+        Post smallPost = writePostWithAssociations("작은 글");
+
+        assertThat(countDeleteStatements(smallPost)).isEqualTo(DELETE_STATEMENTS_COUNT);
+
+        Post largePost = writePostWithAssociations("추천, 댓글이 많은 글");
+        long largePostId = largePost.getId();
+        addLargeGraph(largePost);
+
+        assertThat(countRows("post_like", largePostId)).isGreaterThan(LARGE_GRAPH_LIKES_COUNT);
+        assertThat(countRows("post_comment", largePostId)).isGreaterThan(LARGE_GRAPH_COMMENTS_COUNT);
+
+        assertThat(countDeleteStatements(largePost)).isEqualTo(DELETE_STATEMENTS_COUNT);
+
+        ASSOCIATION_TABLES.forEach(tableName -> assertThat(countRows(tableName, largePostId)).as(tableName).isZero());
+        assertThat(postRepository.findById(largePostId)).isEmpty();
+    }
+}
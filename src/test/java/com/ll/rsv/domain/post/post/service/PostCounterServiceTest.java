@@ -0,0 +1,132 @@
+package com.ll.rsv.domain.post.post.service;
+
+import com.ll.rsv.domain.member.member.entity.Member;
+import com.ll.rsv.domain.member.member.service.MemberService;
+import com.ll.rsv.domain.post.post.entity.Post;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 스케줄러도 1ms 마다 반영하도록 해서, 증가와 반영이 최대한 겹치게 한다.
+@SpringBootTest(properties = {
+        "custom.post.counter.mode=buffered",
+        "custom.post.counter.flushIntervalMs=1"
+})
+@ActiveProfiles("test")
+public class PostCounterServiceTest {
+    private static final int THREADS_COUNT = 8;
+    private static final int INCREASES_PER_THREAD = 5_000;
+
+    @Autowired
+    private PostCounterService postCounterService;
+    @Autowired
+    private PostService postService;
+    @Autowired
+    private MemberService memberService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        Member author = memberService.findByUsername("user1").get();
+        post = transactionTemplate.execute(status -> postService.write(author, "카운터", "내용", true, true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        postCounterService.flush();
+        transactionTemplate.executeWithoutResult(status -> postService.delete(postService.findById(post.getId()).get()));
+    }
+
+    private long getColumn(String columnName) {
+        return jdbcTemplate.queryForObject("select %s from post where id = ?".formatted(columnName), Long.class, post.getId());
+    }
+
+    @Test
+    @DisplayName("반영하는 도중에 더해진 증감량도 유실되지 않는다.")
+    void t1() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS_COUNT + 1);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        AtomicBoolean increasing = new AtomicBoolean(true);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREADS_COUNT; i++) {
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+
+                for (int j = 0; j < INCREASES_PER_THREAD; j++) {
+                    postCounterService.increaseLikesCount(post);
+                    postCounterService.increaseCommentsCount(post);
+                }
+
+                return null;
+            }));
+        }
+
+        Future<?> flusher = executor.submit(() -> {
+            startLatch.await();
+
+            while (increasing.get()) postCounterService.flush();
+
+            return null;
+        });
+
+        startLatch.countDown();
+
+        for (Future<?> future : futures) future.get();
+
+        increasing.set(false);
+        flusher.get();
+        executor.shutdown();
+
+        postCounterService.flush();
+
+        long expected = (long) THREADS_COUNT * INCREASES_PER_THREAD;
+
+        assertThat(getColumn("likes_count")).isEqualTo(expected);
+        assertThat(getColumn("comments_count")).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("한 주기 동안 변화가 없던 글의 항목은 버퍼에서 지워진다.")
+    void t2() {
+        Map<?, ?> likesCountDeltas = (Map<?, ?>) ReflectionTestUtils.getField(postCounterService, "likesCountDeltas");
+
+        postCounterService.increaseLikesCount(post);
+        postCounterService.flush();
+
+        assertThat(getColumn("likes_count")).isEqualTo(1);
+
+        // 이번 주기에는 변화가 없다.
+        postCounterService.flush();
+
+        assertThat(likesCountDeltas.containsKey(post.getId())).isFalse();
+
+        postCounterService.increaseLikesCount(post);
+        postCounterService.flush();
+
+        assertThat(getColumn("likes_count")).isEqualTo(2);
+    }
+}
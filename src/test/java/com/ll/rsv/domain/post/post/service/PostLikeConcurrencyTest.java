@@ -0,0 +1,139 @@
+package com.ll.rsv.domain.post.post.service;
+
+import com.ll.rsv.domain.member.member.entity.Member;
+import com.ll.rsv.domain.member.member.repository.MemberRepository;
+import com.ll.rsv.domain.member.member.service.MemberService;
+import com.ll.rsv.domain.post.post.entity.Post;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 여러 요청이 실제로 동시에 커밋되어야 하므로 테스트 트랜잭션으로 감싸지 않는다.
+@SpringBootTest
+@ActiveProfiles("test")
+public class PostLikeConcurrencyTest {
+    private static final int THREADS_COUNT = 16;
+    private static final int DISTINCT_LIKERS_COUNT = 1_000;
+
+    @Autowired
+    private PostService postService;
+    @Autowired
+    private MemberService memberService;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Member actor;
+    private Post post;
+    private List<Member> likers = List.of();
+
+    @BeforeEach
+    void setUp() {
+        actor = memberService.findByUsername("user2").get();
+        post = transactionTemplate.execute(status -> postService.write(actor, "동시 추천", "내용", true, true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> postService.delete(postService.findById(post.getId()).get()));
+
+        if (!likers.isEmpty()) memberRepository.deleteAllInBatch(likers);
+    }
+
+    // 모든 스레드가 동시에 출발하도록 래치로 맞춘다, 어느 요청에서든 예외가 나면 테스트가 실패한다.
+    private void runConcurrently(int count, IntConsumer action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(count, THREADS_COUNT));
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            int index = i;
+
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                action.accept(index);
+                return null;
+            }));
+        }
+
+        startLatch.countDown();
+
+        try {
+            for (Future<?> future : futures) future.get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private long getLikesCount() {
+        return postService.findById(post.getId()).get().getLikesCount();
+    }
+
+    private long getLikeRowsCount() {
+        return jdbcTemplate.queryForObject("select count(*) from post_like where post_id = ?", Long.class, post.getId());
+    }
+
+    @Test
+    @DisplayName("같은 회원이 동시에 여러번 추천해도 추천수는 1만 증가한다.")
+    void t1() throws Exception {
+        runConcurrently(THREADS_COUNT, i -> postService.like(actor, post));
+
+        assertThat(getLikeRowsCount()).isEqualTo(1);
+        assertThat(getLikesCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("같은 회원이 동시에 여러번 추천취소해도 추천수는 1만 감소한다.")
+    void t2() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> postService.like(actor, post));
+
+        runConcurrently(THREADS_COUNT, i -> postService.cancelLike(actor, post));
+
+        assertThat(getLikeRowsCount()).isEqualTo(0);
+        assertThat(getLikesCount()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("서로 다른 회원 1000명이 동시에 추천하면 추천수는 정확히 1000이다.")
+    void t3() throws Exception {
+        // 회원가입은 비밀번호 해시 때문에 느리므로, 추천에 필요한 회원 행만 바로 만든다.
+        List<Member> members = new ArrayList<>();
+
+        for (int i = 0; i < DISTINCT_LIKERS_COUNT; i++) {
+            members.add(
+                    Member.builder()
+                            .username("liker_%d_%d".formatted(post.getId(), i))
+                            .password("")
+                            .nickname("liker" + i)
+                            .profileImgUrl("")
+                            .build()
+            );
+        }
+
+        likers = memberRepository.saveAll(members);
+
+        runConcurrently(DISTINCT_LIKERS_COUNT, i -> postService.like(likers.get(i), post));
+
+        assertThat(getLikeRowsCount()).isEqualTo(DISTINCT_LIKERS_COUNT);
+        assertThat(getLikesCount()).isEqualTo(DISTINCT_LIKERS_COUNT);
+    }
+}
@@ -0,0 +1,190 @@
+package com.ll.rsv.domain.post.post.service;
+
+import com.ll.rsv.domain.member.member.entity.Member;
+import com.ll.rsv.domain.member.member.service.MemberService;
+import com.ll.rsv.domain.post.post.dto.PostDto;
+import com.ll.rsv.domain.post.post.entity.Post;
+import com.ll.rsv.domain.post.post.repository.PostCountCache;
+import com.ll.rsv.domain.post.post.repository.PostListItem;
+import com.ll.rsv.standard.base.KwTypeV1;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class PostServiceTest {
+    @Autowired
+    private PostService postService;
+    @Autowired
+    private MemberService memberService;
+    @Autowired
+    private PostCountCache postCountCache;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<PostDto> findAllAsDtos() {
+        List<PostListItem> items = postService.findListItemsByKw(
+                KwTypeV1.ALL,
+                "",
+                null,
+                null,
+                null,
+                PageRequest.of(0, 100, Sort.by(Sort.Order.desc("id")))
+        ).getContent();
+
+        return items.stream().map(PostDto::new).toList();
+    }
+
+    @Test
+    @DisplayName("목록 조회결과는 엔티티와 같은 값을 가진다.")
+    void t1() {
+        List<PostDto> dtos = findAllAsDtos();
+
+        assertThat(dtos).isNotEmpty();
+
+        dtos.forEach(dto -> {
+            Post post = postService.findById(dto.getId()).get();
+
+            assertThat(dto.getAuthorId()).isEqualTo(post.getAuthor().getId());
+            assertThat(dto.getAuthorName()).isEqualTo(post.getAuthor().getName());
+            assertThat(dto.getTitle()).isEqualTo(post.getTitle());
+            assertThat(dto.isPublished()).isEqualTo(post.isPublished());
+            assertThat(dto.isListed()).isEqualTo(post.isListed());
+            assertThat(dto.getLikesCount()).isEqualTo(post.getLikesCount());
+            assertThat(dto.getCommentsCount()).isEqualTo(post.getCommentsCount());
+            assertThat(dto.getTagContents()).containsExactlyInAnyOrderElementsOf(post.getTagContents());
+        });
+    }
+
+    @Test
+    @DisplayName("한번에 채운 권한은 글별로 확인한 권한과 같다.")
+    void t2() {
+        List<Member> actors = Arrays.asList(
+                null,
+                memberService.findByUsername("user1").get(),
+                memberService.findByUsername("user2").get(),
+                memberService.findByUsername("admin").get()
+        );
+
+        actors.forEach(actor -> {
+            List<PostDto> dtos = findAllAsDtos();
+
+            postService.loadActorCapabilities(actor, dtos);
+
+            dtos.forEach(dto -> {
+                Post post = postService.findById(dto.getId()).get();
+
+                assertThat(dto.getActorCanRead()).isEqualTo(postService.canRead(actor, post));
+                assertThat(dto.getActorCanEdit()).isEqualTo(postService.canEdit(actor, post));
+                assertThat(dto.getActorCanDelete()).isEqualTo(postService.canDelete(actor, post));
+                assertThat(dto.getActorCanLike()).isEqualTo(postService.canLike(actor, post));
+                assertThat(dto.getActorCanCancelLike()).isEqualTo(postService.canCancelLike(actor, post));
+            });
+        });
+    }
+
+    @Test
+    @DisplayName("글이 1개일 때도 추천여부를 글별로 확인한 것과 같다.")
+    void t3() {
+        Member actor = memberService.findByUsername("user2").get();
+
+        findAllAsDtos().forEach(dto -> {
+            postService.loadActorCapabilities(actor, List.of(dto));
+
+            Post post = postService.findById(dto.getId()).get();
+
+            assertThat(dto.getActorCanLike()).isEqualTo(postService.canLike(actor, post));
+            assertThat(dto.getActorCanCancelLike()).isEqualTo(postService.canCancelLike(actor, post));
+        });
+    }
+
+    // action 을 실행하는 동안 준비된 JDBC 문장 수, hibernate.generate_statistics(application-test.yml) 로 센다.
+    private long countStatements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        action.run();
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    // 태그가 달린 글들을 목록 여러 페이지 분량만큼 만든다.
+    private void writePostsWithTags(int count) {
+        Member author = memberService.findByUsername("user1").get();
+
+        for (int i = 0; i < count; i++) {
+            Post post = postService.write(author, "태그글 " + i, "내용", true, true);
+            postService.edit(post, post.getTitle(), List.of("태그" + i, "공통태그"), "내용", true, true);
+        }
+    }
+
+    private Page<PostListItem> findPage(int pageSize) {
+        return postService.findListItemsByKw(
+                KwTypeV1.ALL,
+                "",
+                null,
+                true,
+                true,
+                PageRequest.of(0, pageSize, Sort.by(Sort.Order.desc("id")))
+        );
+    }
+
+    @Test
+    @DisplayName("목록 1페이지는 페이지 크기와 상관없이 글, 태그, 전체 개수 3번의 쿼리로 조회된다, 전체 개수는 캐시된다.")
+    void t4() {
+        writePostsWithTags(30);
+
+        postCountCache.invalidateAll();
+        assertThat(countStatements(() -> {
+            Page<PostListItem> page = findPage(10);
+
+            assertThat(page.getContent()).hasSize(10);
+            assertThat(page.getContent()).allMatch(item -> item.tagContents().contains("공통태그"));
+        })).isEqualTo(3);
+
+        // 전체 개수는 캐시에서
+        assertThat(countStatements(() -> findPage(10))).isEqualTo(2);
+
+        postCountCache.invalidateAll();
+        assertThat(countStatements(() -> {
+            Page<PostListItem> page = findPage(25);
+
+            assertThat(page.getContent()).hasSize(25);
+            assertThat(page.getContent()).allMatch(item -> item.tagContents().size() == 2);
+        })).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("목록의 권한은 글이 몇개든 추천여부 1번의 쿼리로 채워진다.")
+    void t5() {
+        writePostsWithTags(30);
+
+        Member actor = memberService.findByUsername("user2").get();
+
+        List<PostDto> dtos = findPage(25).getContent().stream().map(PostDto::new).toList();
+
+        assertThat(countStatements(() -> postService.loadActorCapabilities(actor, dtos))).isEqualTo(1);
+    }
+}
@@ -0,0 +1,206 @@
+package com.ll.rsv.domain.post.postComment.service;
+
+import com.ll.rsv.domain.member.member.entity.Member;
+import com.ll.rsv.domain.member.member.service.MemberService;
+import com.ll.rsv.domain.post.post.entity.Post;
+import com.ll.rsv.domain.post.post.service.PostService;
+import com.ll.rsv.domain.post.postComment.entity.PostComment;
+import com.ll.rsv.domain.post.postComment.repository.PostCommentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 댓글이 아주 많은 글과 댓글이 없는 글에서, 댓글 쓰기/삭제에 실행되는 쿼리 수가 같은지 본다.
+// 실행되는 쿼리 수는 hibernate.generate_statistics(application-test.yml) 로 센다.
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class PostCommentServiceTest {
+    // 큰 글의 최상위 댓글 수, 그리고 그 중 한 댓글의 답글 수
+    private static final int LARGE_THREAD_COMMENTS_COUNT = 10_000;
+
+    @Autowired
+    private PostCommentService postCommentService;
+    @Autowired
+    private PostCommentRepository postCommentRepository;
+    @Autowired
+    private PostService postService;
+    @Autowired
+    private MemberService memberService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Member author;
+    private long largePostId;
+    private long largeParentCommentId;
+    private long emptyPostId;
+    private long emptyParentCommentId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        author = memberService.findByUsername("user1").get();
+
+        Post largePost = postService.write(author, "댓글이 많은 글", "내용", true, true);
+        largePostId = largePost.getId();
+        largeParentCommentId = postCommentService.write(author, largePost, null, "답글이 많은 댓글", true).getId();
+        seedComments(largePost, postCommentRepository.findById(largeParentCommentId).get());
+
+        Post emptyPost = postService.write(author, "댓글이 없는 글", "내용", true, true);
+        emptyPostId = emptyPost.getId();
+        emptyParentCommentId = postCommentService.write(author, emptyPost, null, "답글이 없는 댓글", true).getId();
+
+        clear();
+    }
+
+    // 카운터를 하나씩 올리지 않고 행만 한번에 넣은 후, 카운터는 맞춰준다.
+    private void seedComments(Post post, PostComment parentComment) {
+        List<PostComment> comments = new ArrayList<>();
+
+        for (int i = 0; i < LARGE_THREAD_COMMENTS_COUNT; i++) {
+            comments.add(PostComment.builder().post(post).author(author).body("댓글 " + i).published(true).build());
+            comments.add(PostComment.builder().post(post).parentComment(parentComment).author(author).body("답글 " + i).published(true).build());
+        }
+
+        postCommentRepository.saveAll(comments);
+        entityManager.flush();
+
+        jdbcTemplate.update("update post set comments_count = comments_count + ? where id = ?", LARGE_THREAD_COMMENTS_COUNT, post.getId());
+        jdbcTemplate.update("update post_comment set children_count = ? where id = ?", LARGE_THREAD_COMMENTS_COUNT, parentComment.getId());
+    }
+
+    // 영속성 컨텍스트를 비워서, 이후에 불러오는 엔티티의 컬렉션이 초기화되지 않은 상태로 시작하게 한다.
+    private void clear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // action 을 실행하고 flush 될 때까지 준비된 JDBC 문장 수
+    private long countStatements(Runnable action) {
+        entityManager.flush();
+        statistics.clear();
+
+        action.run();
+        entityManager.flush();
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Post findPost(long postId) {
+        return postService.findById(postId).get();
+    }
+
+    private PostComment findComment(long postCommentId) {
+        return postCommentService.findById(postCommentId).get();
+    }
+
+    private long getCommentsCount(long postId) {
+        return jdbcTemplate.queryForObject("select comments_count from post where id = ?", Long.class, postId);
+    }
+
+    private long getChildrenCount(long postCommentId) {
+        return jdbcTemplate.queryForObject("select children_count from post_comment where id = ?", Long.class, postCommentId);
+    }
+
+    private long countWriteStatements(long postId, long parentCommentId, boolean reply) {
+        Post post = findPost(postId);
+        PostComment parentComment = reply ? findComment(parentCommentId) : null;
+
+        long statementsCount = countStatements(() -> postCommentService.write(author, post, parentComment, "새 글", true));
+
+        assertThat(Hibernate.isInitialized(post.getComments())).isFalse();
+        if (parentComment != null) assertThat(Hibernate.isInitialized(parentComment.getChildren())).isFalse();
+
+        clear();
+
+        return statementsCount;
+    }
+
+    private long countDeleteStatements(long postId, long parentCommentId, boolean reply) {
+        Post post = findPost(postId);
+        PostComment parentComment = reply ? findComment(parentCommentId) : null;
+        long postCommentId = postCommentService.write(author, post, parentComment, "지울 글", true).getId();
+
+        clear();
+
+        Post _post = findPost(postId);
+        PostComment postComment = findComment(postCommentId);
+
+        long statementsCount = countStatements(() -> postCommentService.delete(_post, postComment));
+
+        assertThat(Hibernate.isInitialized(_post.getComments())).isFalse();
+
+        clear();
+
+        return statementsCount;
+    }
+
+    @Test
+    @DisplayName("댓글 10000개인 글에 댓글을 써도, 댓글이 없는 글과 같은 수의 쿼리만 실행되고 commentsCount 는 정확하다.")
+    void t1() {
+        long emptyCount = countWriteStatements(emptyPostId, emptyParentCommentId, false);
+        long largeCount = countWriteStatements(largePostId, largeParentCommentId, false);
+
+        assertThat(largeCount).isEqualTo(emptyCount);
+        assertThat(getCommentsCount(largePostId)).isEqualTo(LARGE_THREAD_COMMENTS_COUNT + 2);
+    }
+
+    @Test
+    @DisplayName("답글 10000개인 댓글에 답글을 써도, 답글이 없는 댓글과 같은 수의 쿼리만 실행되고 childrenCount 는 정확하다.")
+    void t2() {
+        long emptyCount = countWriteStatements(emptyPostId, emptyParentCommentId, true);
+        long largeCount = countWriteStatements(largePostId, largeParentCommentId, true);
+
+        assertThat(largeCount).isEqualTo(emptyCount);
+        assertThat(getChildrenCount(largeParentCommentId)).isEqualTo(LARGE_THREAD_COMMENTS_COUNT + 1);
+        assertThat(getCommentsCount(largePostId)).isEqualTo(LARGE_THREAD_COMMENTS_COUNT + 1);
+    }
+
+    @Test
+    @DisplayName("댓글 10000개인 글에서 댓글, 답글을 지워도, 댓글이 없는 글과 같은 수의 쿼리만 실행되고 카운터는 정확하다.")
+    void t3() {
+        assertThat(countDeleteStatements(largePostId, largeParentCommentId, false))
+                .isEqualTo(countDeleteStatements(emptyPostId, emptyParentCommentId, false));
+        assertThat(countDeleteStatements(largePostId, largeParentCommentId, true))
+                .isEqualTo(countDeleteStatements(emptyPostId, emptyParentCommentId, true));
+
+        assertThat(getCommentsCount(largePostId)).isEqualTo(LARGE_THREAD_COMMENTS_COUNT + 1);
+        assertThat(getChildrenCount(largeParentCommentId)).isEqualTo(LARGE_THREAD_COMMENTS_COUNT);
+    }
+
+    @Test
+    @DisplayName("비공개(임시) 댓글은 세지 않고, 공개될 때 센다.")
+    void t4() {
+        PostComment tempComment = postCommentService.write(author, findPost(emptyPostId), null, "", false);
+
+        clear();
+
+        assertThat(getCommentsCount(emptyPostId)).isEqualTo(1);
+
+        postCommentService.edit(findPost(emptyPostId), findComment(tempComment.getId()), "공개");
+
+        clear();
+
+        assertThat(getCommentsCount(emptyPostId)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,174 @@
+package com.ll.rsv.domain.post.postSearch.service;
+
+import com.ll.rsv.domain.member.member.entity.Member;
+import com.ll.rsv.domain.member.member.service.MemberService;
+import com.ll.rsv.domain.post.post.entity.Post;
+import com.ll.rsv.domain.post.post.repository.PostRepository;
+import com.ll.rsv.domain.post.post.service.PostService;
+import com.ll.rsv.domain.post.postSearch.repository.PostSearchGramRepository;
+import com.ll.rsv.standard.base.KwTypeV1;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.ll.rsv.domain.post.post.entity.QPost.post;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class NgramPostSearchEngineTest {
+    @Autowired
+    private NgramPostSearchEngine ngramPostSearchEngine;
+    @Autowired
+    private PostSearchGramRepository postSearchGramRepository;
+    @Autowired
+    private PostService postService;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private MemberService memberService;
+    @Autowired
+    private JPAQueryFactory jpaQueryFactory;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private List<Long> search(PostSearchEngine postSearchEngine, KwTypeV1 kwType, String kw) {
+        return jpaQueryFactory
+                .select(post.id)
+                .from(post)
+                .where(postSearchEngine.createKeywordFilter(kwType, kw))
+                .orderBy(post.id.asc())
+                .fetch();
+    }
+
+    private List<Long> search(KwTypeV1 kwType, String kw) {
+        return search(ngramPostSearchEngine, kwType, kw);
+    }
+
+    private Post write(String title, String body) {
+        Member author = memberService.findByUsername("user1").get();
+        Post post = postService.write(author, title, body, true, true);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        return post;
+    }
+
+    @Test
+    @DisplayName("toGrams 는 소문자로 바꾼 후, 공백을 포함하지 않는 연속된 두 글자를 모두 뽑는다.")
+    void t1() {
+        assertThat(NgramPostSearchEngine.toGrams("Hello World"))
+                .containsExactlyInAnyOrder("he", "el", "ll", "lo", "wo", "or", "rl", "ld");
+        assertThat(NgramPostSearchEngine.toGrams("안녕 하세요"))
+                .containsExactlyInAnyOrder("안녕", "하세", "세요");
+        // 중복은 한번만
+        assertThat(NgramPostSearchEngine.toGrams("아아아")).containsExactly("아아");
+        // 서로게이트 쌍도 한 글자로 센다.
+        assertThat(NgramPostSearchEngine.toGrams("😀😁")).containsExactly("😀😁");
+
+        assertThat(NgramPostSearchEngine.toGrams(null)).isEmpty();
+        assertThat(NgramPostSearchEngine.toGrams("가")).isEmpty();
+        assertThat(NgramPostSearchEngine.toGrams("가 나")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("색인으로 검색한 결과는 like 검색과 같다.")
+    @Transactional
+    void t2() {
+        Post titlePost = write("Ngram 검색엔진 테스트", "본문입니다.");
+        Post bodyPost = write("다른 글", "본문에만 검색엔진 이라는 말이 있다.");
+
+        LikePostSearchEngine likePostSearchEngine = new LikePostSearchEngine();
+
+        for (KwTypeV1 kwType : KwTypeV1.values()) {
+            for (String kw : List.of("검색엔진", "NGRAM", "본문", "검색 엔진", "없는검색어", "검")) {
+                assertThat(search(kwType, kw))
+                        .as("%s %s", kwType, kw)
+                        .isEqualTo(search(likePostSearchEngine, kwType, kw));
+            }
+        }
+
+        assertThat(search(KwTypeV1.TITLE, "검색엔진")).contains(titlePost.getId()).doesNotContain(bodyPost.getId());
+        assertThat(search(KwTypeV1.BODY, "검색엔진")).contains(bodyPost.getId()).doesNotContain(titlePost.getId());
+        assertThat(search(KwTypeV1.ALL, "검색엔진")).contains(titlePost.getId(), bodyPost.getId());
+    }
+
+    @Test
+    @DisplayName("글을 수정하면 바뀐 gram 만 반영되어, 이전 제목으로는 검색되지 않는다.")
+    @Transactional
+    void t3() {
+        Post post = write("수정전제목", "본문");
+
+        postService.edit(postService.findById(post.getId()).get(), "수정후제목", List.of(), "본문", true, true);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(search(KwTypeV1.TITLE, "수정전")).doesNotContain(post.getId());
+        assertThat(search(KwTypeV1.TITLE, "수정후")).contains(post.getId());
+
+        Post editedPost = postService.findById(post.getId()).get();
+
+        assertThat(new HashSet<>(postSearchGramRepository.findGramsByPostAndFieldName(editedPost, "title")))
+                .isEqualTo(NgramPostSearchEngine.toGrams("수정후제목"));
+    }
+
+    // 색인을 비운 후 다시 만든다, 청크마다 커밋되므로 테스트 트랜잭션 밖에서 실행한다.
+    @Test
+    @DisplayName("색인이 비어 있으면 모든 글의 제목과 본문을 색인하고, 비어 있지 않으면 아무것도 하지 않는다.")
+    void t4() {
+        jdbcTemplate.update("delete from post_search_gram");
+
+        ngramPostSearchEngine.reindexAllIfEmpty();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Post> posts = postRepository.findAll();
+
+            assertThat(posts).isNotEmpty();
+
+            for (Post post : posts) {
+                Set<String> titleGrams = new HashSet<>(postSearchGramRepository.findGramsByPostAndFieldName(post, "title"));
+                Set<String> bodyGrams = new HashSet<>(postSearchGramRepository.findGramsByPostAndFieldName(post, "body"));
+
+                assertThat(titleGrams).as("post %d title", post.getId()).isEqualTo(NgramPostSearchEngine.toGrams(post.getTitle()));
+                assertThat(bodyGrams).as("post %d body", post.getId()).isEqualTo(
+                        NgramPostSearchEngine.toGrams(post.getDetailBody() == null ? null : post.getDetailBody().getVal())
+                );
+            }
+        });
+
+        long gramsCount = postSearchGramRepository.count();
+
+        // 일부만 남겨두면 비어 있지 않으므로 다시 색인하지 않는다.
+        jdbcTemplate.update("delete from post_search_gram where field_name = 'body'");
+        long titleGramsCount = postSearchGramRepository.count();
+
+        ngramPostSearchEngine.reindexAllIfEmpty();
+
+        assertThat(postSearchGramRepository.count()).isEqualTo(titleGramsCount);
+
+        // 다른 테스트를 위해 원래대로 돌려놓는다.
+        jdbcTemplate.update("delete from post_search_gram");
+        ngramPostSearchEngine.reindexAllIfEmpty();
+
+        assertThat(postSearchGramRepository.count()).isEqualTo(gramsCount);
+    }
+}
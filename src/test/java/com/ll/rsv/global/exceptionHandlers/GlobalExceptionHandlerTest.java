@@ -0,0 +1,82 @@
+package com.ll.rsv.global.exceptionHandlers;
+
+import com.ll.rsv.global.app.AppConfig;
+import com.ll.rsv.global.rq.Rq;
+import org.apache.catalina.connector.ClientAbortException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GlobalExceptionHandlerTest {
+    private GlobalExceptionHandler globalExceptionHandler;
+    private MockHttpServletResponse response;
+    private String oldActiveProfile;
+
+    @BeforeEach
+    void setUp() {
+        oldActiveProfile = (String) ReflectionTestUtils.getField(AppConfig.class, "activeProfile");
+        ReflectionTestUtils.setField(AppConfig.class, "activeProfile", "test");
+
+        Rq rq = mock(Rq.class);
+        when(rq.getCurrentUrlPath()).thenReturn("/api/v1/posts");
+
+        globalExceptionHandler = new GlobalExceptionHandler(rq);
+        ReflectionTestUtils.setField(globalExceptionHandler, "traceSampleRate", 0.0);
+
+        response = new MockHttpServletResponse();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(AppConfig.class, "activeProfile", oldActiveProfile);
+    }
+
+    @Test
+    @DisplayName("처리되지 않은 예외는 500 응답으로 바꾼다.")
+    void t1() {
+        ResponseEntity<Object> responseEntity = globalExceptionHandler.handleException(new IllegalStateException("에러"), response);
+
+        assertThat(responseEntity).isNotNull();
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    @DisplayName("클라이언트가 연결을 끊어서 난 예외는, 다른 예외로 감싸져 있어도 응답을 쓰지 않는다.")
+    void t2() {
+        assertThat(globalExceptionHandler.handleException(new ClientAbortException(), response)).isNull();
+        assertThat(globalExceptionHandler.handleException(new IllegalStateException("응답 실패", new ClientAbortException()), response)).isNull();
+        assertThat(globalExceptionHandler.handleException(
+                new HttpMessageNotWritableException("쓰기 실패", new IOException("Broken pipe")),
+                response
+        )).isNull();
+    }
+
+    @Test
+    @DisplayName("이미 응답을 보내기 시작했으면 에러 응답을 쓰지 않는다.")
+    void t3() {
+        response.setCommitted(true);
+
+        assertThat(globalExceptionHandler.handleException(new IllegalStateException("에러"), response)).isNull();
+    }
+
+    @Test
+    @DisplayName("broken pipe 가 아닌 IOException 은 500 응답으로 바꾼다.")
+    void t4() {
+        ResponseEntity<Object> responseEntity = globalExceptionHandler.handleException(new IOException("디스크 오류"), response);
+
+        assertThat(responseEntity).isNotNull();
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+}
@@ -0,0 +1,108 @@
+package com.ll.rsv.global.jpa;
+
+import com.ll.rsv.domain.base.genFile.entity.GenFile.GenFileDeleteTask;
+import com.ll.rsv.domain.base.genFile.repository.GenFileDeleteTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// IDENTITY 시절에 쌓인 데이터가 있는 DB 로 서버가 뜨는 상황
+// 다른 테스트가 id 를 할당받지 않은 새 DB 를 써야 하므로 따로 띄운다.
+// GenFileDeleteTask 는 초기 데이터를 만들 때 쓰이지 않아서, 이 테스트 전에는 Hibernate 가 시퀀스 값을 받아두지 않는다.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:db_test_id_sequence;MODE=PostgreSQL"
+})
+@ActiveProfiles("test")
+public class IdSequenceAlignerTest {
+    // 할당 단위(50)보다 많이 넣어서, 시퀀스가 몇 블록을 건너뛰어야 하게 한다.
+    private static final int LEGACY_ROWS_COUNT = 120;
+    // 새로 넣는 것도 할당 단위를 넘겨서, 다음 블록을 받을 때도 겹치지 않는지 본다.
+    private static final int NEW_ROWS_COUNT = 60;
+
+    @Autowired
+    private IdSequenceAligner idSequenceAligner;
+    @Autowired
+    private GenFileDeleteTaskRepository genFileDeleteTaskRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from gen_file_delete_task");
+    }
+
+    // GenFileDeleteWorker 가 집어가지 않도록 먼 미래로 잡는다.
+    private LocalDateTime farFuture() {
+        return LocalDateTime.now().plusYears(100);
+    }
+
+    private void insertLegacyRows() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp nextTryDate = Timestamp.valueOf(farFuture());
+
+        jdbcTemplate.batchUpdate(
+                "insert into gen_file_delete_task (id, create_date, modify_date, file_dir, stored_file_name, try_count, next_try_date) values (?, ?, ?, ?, ?, 0, ?)",
+                IntStream.rangeClosed(1, LEGACY_ROWS_COUNT)
+                        .mapToObj(id -> new Object[]{id, now, now, "legacy", "legacy-" + id, nextTryDate})
+                        .toList()
+        );
+    }
+
+    @Test
+    @DisplayName("기존 데이터의 id 를 명시해서 넣어둔 후 시작해도, 새로 저장하는 엔티티의 id 와 겹치지 않는다.")
+    void t1() {
+        insertLegacyRows();
+
+        // 서버가 시작될 때 All.initIdSequences 가 하는 일
+        idSequenceAligner.align();
+
+        List<GenFileDeleteTask> tasks = new ArrayList<>();
+
+        for (int i = 0; i < NEW_ROWS_COUNT; i++) {
+            tasks.add(
+                    GenFileDeleteTask.builder()
+                            .fileDir("new")
+                            .storedFileName("new-" + i)
+                            .nextTryDate(farFuture())
+                            .build()
+            );
+        }
+
+        genFileDeleteTaskRepository.saveAllAndFlush(tasks);
+
+        List<Long> ids = tasks.stream().map(GenFileDeleteTask::getId).toList();
+
+        assertThat(ids).allMatch(id -> id > LEGACY_ROWS_COUNT);
+        assertThat(new HashSet<>(ids)).hasSize(NEW_ROWS_COUNT);
+        assertThat(genFileDeleteTaskRepository.count()).isEqualTo(LEGACY_ROWS_COUNT + NEW_ROWS_COUNT);
+    }
+
+    @Test
+    @DisplayName("시퀀스가 이미 최대 id 보다 앞서 있으면 되돌리지 않는다.")
+    void t2() {
+        idSequenceAligner.align();
+
+        Long before = jdbcTemplate.queryForObject("select next value for member_seq", Long.class);
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from member", Long.class);
+
+        idSequenceAligner.align();
+
+        Long after = jdbcTemplate.queryForObject("select next value for member_seq", Long.class);
+
+        assertThat(before).isGreaterThan(maxId);
+        assertThat(after).isGreaterThan(before);
+    }
+}
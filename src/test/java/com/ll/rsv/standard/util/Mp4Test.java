@@ -0,0 +1,404 @@
+package com.ll.rsv.standard.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 테스트용 MP4 는 box 들을 직접 조립해서 만든다.
+// src/test/resources/mp4 의 샘플들은 인코더가 만드는 구성을 따라 손으로 만든 작은 파일이다.
+// - moov-at-end.mp4 : ffmpeg 식, ftyp, free, mdat, moov(mvhd, 비디오 trak, 오디오 trak, udta > meta > ilst), 각 trak 에 edts
+// - faststart.mp4 : 같은 내용을 moov, free, mdat 순으로 둔 것
+// - co64.mov : QuickTime 식, 64비트 크기의 mdat, version 1 mvhd/tkhd/mdhd, 오디오 trak 이 먼저, co64, udta 와 QuickTime meta(keys, ilst)
+// 샘플 데이터는 0x80 이상의 바이트로만 채워서 box 이름을 찾을 때 헷갈리지 않는다.
+public class Mp4Test {
+    private static final int CHUNK_SIZE = 100;
+    private static final int CHUNKS_COUNT = 3;
+    // 샘플의 청크들은 모두 이보다 크다.
+    private static final int SAMPLE_CHUNK_CHECK_LENGTH = 64;
+
+    @TempDir
+    Path dir;
+
+    private static byte[] box(String type, byte[]... payloads) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        for (byte[] payload : payloads) out.writeBytes(payload);
+
+        byte[] payload = out.toByteArray();
+
+        return ByteBuffer.allocate(8 + payload.length)
+                .putInt(8 + payload.length)
+                .put(type.getBytes(StandardCharsets.ISO_8859_1))
+                .put(payload)
+                .array();
+    }
+
+    private static byte[] ftyp() {
+        return box("ftyp", "isom".getBytes(StandardCharsets.ISO_8859_1), new byte[4], "isom".getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static byte[] mdat() {
+        byte[] payload = new byte[CHUNK_SIZE * CHUNKS_COUNT];
+
+        for (int i = 0; i < payload.length; i++) payload[i] = (byte) (i / CHUNK_SIZE + 1);
+
+        return box("mdat", payload);
+    }
+
+    // timescale 1000, duration 5000 -> 5초
+    private static byte[] mvhd() {
+        return box("mvhd", ByteBuffer.allocate(100).putInt(12, 1000).putInt(16, 5000).array());
+    }
+
+    private static byte[] tkhd(int width, int height) {
+        return box("tkhd", ByteBuffer.allocate(84).putInt(76, width << 16).putInt(80, height << 16).array());
+    }
+
+    private static byte[] hdlr(String handlerType) {
+        ByteBuffer payload = ByteBuffer.allocate(25);
+        payload.put(8, handlerType.getBytes(StandardCharsets.ISO_8859_1));
+
+        return box("hdlr", payload.array());
+    }
+
+    private static byte[] stsd(String codec) {
+        return box("stsd", ByteBuffer.allocate(8).putInt(4, 1).array(), box(codec, new byte[78]));
+    }
+
+    private static byte[] stco(long[] chunkOffsets) {
+        ByteBuffer payload = ByteBuffer.allocate(8 + chunkOffsets.length * 4).putInt(4, chunkOffsets.length);
+
+        for (int i = 0; i < chunkOffsets.length; i++) payload.putInt(8 + i * 4, (int) chunkOffsets[i]);
+
+        return box("stco", payload.array());
+    }
+
+    private static byte[] co64(long[] chunkOffsets) {
+        ByteBuffer payload = ByteBuffer.allocate(8 + chunkOffsets.length * 8).putInt(4, chunkOffsets.length);
+
+        for (int i = 0; i < chunkOffsets.length; i++) payload.putLong(8 + i * 8, chunkOffsets[i]);
+
+        return box("co64", payload.array());
+    }
+
+    private static byte[] moov(long[] chunkOffsets, boolean useCo64) {
+        byte[] chunkOffsetBox = useCo64 ? co64(chunkOffsets) : stco(chunkOffsets);
+
+        return box("moov",
+                mvhd(),
+                box("trak",
+                        tkhd(1280, 720),
+                        box("mdia",
+                                hdlr("vide"),
+                                box("minf",
+                                        box("stbl",
+                                                stsd("avc1"),
+                                                chunkOffsetBox
+                                        )
+                                )
+                        )
+                )
+        );
+    }
+
+    private static long[] chunkOffsets(long mdatOffset) {
+        long[] chunkOffsets = new long[CHUNKS_COUNT];
+
+        for (int i = 0; i < CHUNKS_COUNT; i++) chunkOffsets[i] = mdatOffset + 8 + (long) i * CHUNK_SIZE;
+
+        return chunkOffsets;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        for (byte[] part : parts) out.writeBytes(part);
+
+        return out.toByteArray();
+    }
+
+    // ftyp, mdat, moov 순서
+    private Path writeMoovAtEnd(boolean useCo64) throws Exception {
+        byte[] ftyp = ftyp();
+
+        Path path = dir.resolve("moovAtEnd.mp4");
+        Files.write(path, concat(ftyp, mdat(), moov(chunkOffsets(ftyp.length), useCo64)));
+
+        return path;
+    }
+
+    // 결과 파일의 moov 에 기록된 청크 위치들을 실제 파일에서 읽어서, 원래 청크 내용과 같은지 확인한다.
+    private void assertChunksReachable(Path path, boolean useCo64) throws Exception {
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        String chunkOffsetBoxType = useCo64 ? "co64" : "stco";
+        int boxOffset = indexOf(bytes, chunkOffsetBoxType.getBytes(StandardCharsets.ISO_8859_1)) - 4;
+        int entriesStart = boxOffset + 16;
+
+        for (int i = 0; i < CHUNKS_COUNT; i++) {
+            long chunkOffset = useCo64 ? buffer.getLong(entriesStart + i * 8) : Integer.toUnsignedLong(buffer.getInt(entriesStart + i * 4));
+
+            byte[] chunk = Arrays.copyOfRange(bytes, (int) chunkOffset, (int) chunkOffset + CHUNK_SIZE);
+            byte[] expected = new byte[CHUNK_SIZE];
+            Arrays.fill(expected, (byte) (i + 1));
+
+            assertThat(chunk).isEqualTo(expected);
+        }
+    }
+
+    private static int indexOf(byte[] bytes, byte[] target) {
+        outer:
+        for (int i = 0; i <= bytes.length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (bytes[i + j] != target[j]) continue outer;
+            }
+
+            return i;
+        }
+
+        return -1;
+    }
+
+    private static int indexOf(byte[] bytes, String type) {
+        return indexOf(bytes, type.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private Path copySample(String fileName) throws Exception {
+        Path path = dir.resolve(fileName);
+
+        try (InputStream in = Mp4Test.class.getResourceAsStream("/mp4/" + fileName)) {
+            Files.copy(in, path);
+        }
+
+        return path;
+    }
+
+    // 최상위 box 의 [시작, 끝)
+    private static int[] findTopLevelBox(byte[] bytes, String type) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int offset = 0;
+
+        while (offset + 8 <= bytes.length) {
+            long size = Integer.toUnsignedLong(buffer.getInt(offset));
+
+            if (size == 1) size = buffer.getLong(offset + 8);
+
+            if (new String(bytes, offset + 4, 4, StandardCharsets.ISO_8859_1).equals(type))
+                return new int[]{offset, (int) (offset + size)};
+
+            offset += (int) size;
+        }
+
+        throw new AssertionError(type + " 가 없습니다.");
+    }
+
+    // 모든 stco, co64 의 청크 위치들, 트랙 순서대로
+    private static List<Long> readChunkOffsets(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        List<Long> chunkOffsets = new ArrayList<>();
+
+        for (int i = 0; i <= bytes.length - 4; i++) {
+            String type = new String(bytes, i, 4, StandardCharsets.ISO_8859_1);
+
+            if (!type.equals("stco") && !type.equals("co64")) continue;
+
+            int entryCount = buffer.getInt(i + 8);
+
+            for (int j = 0; j < entryCount; j++) {
+                chunkOffsets.add(type.equals("co64") ? buffer.getLong(i + 12 + j * 8) : Integer.toUnsignedLong(buffer.getInt(i + 12 + j * 4)));
+            }
+        }
+
+        return chunkOffsets;
+    }
+
+    // 청크 위치만 지운 moov, 옮긴 후에 청크 위치 외에는 바뀌지 않아야 한다.
+    private static byte[] moovWithoutChunkOffsets(byte[] bytes) {
+        int[] moov = findTopLevelBox(bytes, "moov");
+        byte[] moovBytes = Arrays.copyOfRange(bytes, moov[0], moov[1]);
+        ByteBuffer buffer = ByteBuffer.wrap(moovBytes);
+
+        for (int i = 0; i <= moovBytes.length - 4; i++) {
+            String type = new String(moovBytes, i, 4, StandardCharsets.ISO_8859_1);
+
+            if (!type.equals("stco") && !type.equals("co64")) continue;
+
+            int entryCount = buffer.getInt(i + 8);
+            int entrySize = type.equals("co64") ? 8 : 4;
+
+            Arrays.fill(moovBytes, i + 12, i + 12 + entryCount * entrySize, (byte) 0);
+        }
+
+        return moovBytes;
+    }
+
+    // 옮기기 전과 후의 청크 위치가 같은 내용을 가리키는지
+    private void assertSampleChunksReachable(Path source, Path target) throws Exception {
+        byte[] sourceBytes = Files.readAllBytes(source);
+        byte[] targetBytes = Files.readAllBytes(target);
+
+        List<Long> sourceChunkOffsets = readChunkOffsets(sourceBytes);
+        List<Long> targetChunkOffsets = readChunkOffsets(targetBytes);
+
+        assertThat(targetChunkOffsets).hasSameSizeAs(sourceChunkOffsets).isNotEmpty();
+
+        for (int i = 0; i < sourceChunkOffsets.size(); i++) {
+            int sourceChunkOffset = sourceChunkOffsets.get(i).intValue();
+            int targetChunkOffset = targetChunkOffsets.get(i).intValue();
+
+            assertThat(Arrays.copyOfRange(targetBytes, targetChunkOffset, targetChunkOffset + SAMPLE_CHUNK_CHECK_LENGTH))
+                    .as("chunk %d", i)
+                    .isEqualTo(Arrays.copyOfRange(sourceBytes, sourceChunkOffset, sourceChunkOffset + SAMPLE_CHUNK_CHECK_LENGTH));
+        }
+    }
+
+    @Test
+    @DisplayName("moov 가 뒤에 있으면 mdat 앞으로 옮기고 stco 의 청크 위치를 moov 크기만큼 민다.")
+    void t1() throws Exception {
+        Path source = writeMoovAtEnd(false);
+        Path target = dir.resolve("target.mp4");
+
+        assertChunksReachable(source, false);
+
+        Mp4.Result result = Mp4.faststart(source, target);
+
+        assertThat(result.relocated()).isTrue();
+        assertThat(Files.size(target)).isEqualTo(Files.size(source));
+
+        byte[] bytes = Files.readAllBytes(target);
+        assertThat(indexOf(bytes, "moov")).isLessThan(indexOf(bytes, "mdat"));
+
+        assertChunksReachable(target, false);
+    }
+
+    @Test
+    @DisplayName("co64 의 청크 위치도 민다.")
+    void t2() throws Exception {
+        Path source = writeMoovAtEnd(true);
+        Path target = dir.resolve("target.mp4");
+
+        Mp4.Result result = Mp4.faststart(source, target);
+
+        assertThat(result.relocated()).isTrue();
+
+        byte[] bytes = Files.readAllBytes(target);
+        assertThat(indexOf(bytes, "moov")).isLessThan(indexOf(bytes, "mdat"));
+
+        assertChunksReachable(target, true);
+    }
+
+    @Test
+    @DisplayName("이미 moov 가 앞에 있으면 옮기지 않고 정보만 읽는다.")
+    void t3() throws Exception {
+        byte[] ftyp = ftyp();
+        int moovSize = moov(chunkOffsets(0), false).length;
+        byte[] moov = moov(chunkOffsets(ftyp.length + moovSize), false);
+
+        Path source = dir.resolve("faststart.mp4");
+        Files.write(source, concat(ftyp, moov, mdat()));
+        Path target = dir.resolve("target.mp4");
+
+        Mp4.Result result = Mp4.faststart(source, target);
+
+        assertThat(result.relocated()).isFalse();
+        assertThat(Files.exists(target)).isFalse();
+        assertChunksReachable(source, false);
+    }
+
+    @Test
+    @DisplayName("재생시간, 해상도, 코덱을 읽는다.")
+    void t4() throws Exception {
+        Mp4.Result result = Mp4.faststart(writeMoovAtEnd(false), dir.resolve("target.mp4"));
+
+        assertThat(result.info()).isEqualTo(new Mp4.Info(5000L, 1280, 720, "avc1"));
+    }
+
+    @Test
+    @DisplayName("fragmented MP4 는 처리하지 않는다.")
+    void t5() throws Exception {
+        byte[] ftyp = ftyp();
+
+        Path source = dir.resolve("fragmented.mp4");
+        Files.write(source, concat(ftyp, moov(chunkOffsets(ftyp.length), false), box("moof", new byte[8]), mdat()));
+
+        assertThatThrownBy(() -> Mp4.faststart(source, dir.resolve("target.mp4")))
+                .isInstanceOf(Mp4.UnsupportedMp4Exception.class);
+    }
+
+    @Test
+    @DisplayName("샘플 mp4 : 비디오, 오디오 트랙의 청크 위치를 모두 밀고, edts, udta, meta 는 그대로 옮긴다.")
+    void t6() throws Exception {
+        Path source = copySample("moov-at-end.mp4");
+        Path target = dir.resolve("target.mp4");
+
+        Mp4.Result result = Mp4.faststart(source, target);
+
+        assertThat(result.relocated()).isTrue();
+        assertThat(result.info()).isEqualTo(new Mp4.Info(400L, 1280, 720, "avc1"));
+        assertThat(Files.size(target)).isEqualTo(Files.size(source));
+
+        byte[] sourceBytes = Files.readAllBytes(source);
+        byte[] targetBytes = Files.readAllBytes(target);
+
+        // ftyp, free, moov, mdat
+        assertThat(findTopLevelBox(targetBytes, "moov")[0]).isEqualTo(findTopLevelBox(sourceBytes, "mdat")[0]);
+        assertThat(findTopLevelBox(targetBytes, "moov")[1]).isEqualTo(findTopLevelBox(targetBytes, "mdat")[0]);
+        assertThat(moovWithoutChunkOffsets(targetBytes)).isEqualTo(moovWithoutChunkOffsets(sourceBytes));
+
+        assertSampleChunksReachable(source, target);
+    }
+
+    @Test
+    @DisplayName("샘플 mp4 : 이미 faststart 된 파일은 옮기지 않고, 옮긴 결과는 faststart 된 파일과 같다.")
+    void t7() throws Exception {
+        Path source = copySample("faststart.mp4");
+        Path target = dir.resolve("target.mp4");
+
+        Mp4.Result result = Mp4.faststart(source, target);
+
+        assertThat(result.relocated()).isFalse();
+        assertThat(result.info()).isEqualTo(new Mp4.Info(400L, 1280, 720, "avc1"));
+        assertThat(Files.exists(target)).isFalse();
+
+        // moov 와 free 의 순서만 다르므로, 청크 위치는 같다.
+        Path relocated = dir.resolve("relocated.mp4");
+        Mp4.faststart(copySample("moov-at-end.mp4"), relocated);
+
+        assertThat(readChunkOffsets(Files.readAllBytes(relocated))).isEqualTo(readChunkOffsets(Files.readAllBytes(source)));
+    }
+
+    @Test
+    @DisplayName("샘플 mov : 64비트 mdat 헤더와 co64, version 1 헤더를 처리하고, 오디오 트랙이 먼저여도 비디오 트랙의 정보를 읽는다.")
+    void t8() throws Exception {
+        Path source = copySample("co64.mov");
+        Path target = dir.resolve("target.mov");
+
+        Mp4.Result result = Mp4.faststart(source, target);
+
+        assertThat(result.relocated()).isTrue();
+        assertThat(result.info()).isEqualTo(new Mp4.Info(500L, 1920, 1080, "hvc1"));
+
+        byte[] sourceBytes = Files.readAllBytes(source);
+        byte[] targetBytes = Files.readAllBytes(target);
+
+        // ftyp, wide, mdat 순서에서 wide 다음, mdat 앞으로 간다.
+        assertThat(findTopLevelBox(targetBytes, "moov")[0]).isEqualTo(findTopLevelBox(sourceBytes, "mdat")[0]);
+        assertThat(moovWithoutChunkOffsets(targetBytes)).isEqualTo(moovWithoutChunkOffsets(sourceBytes));
+
+        assertSampleChunksReachable(source, target);
+    }
+}